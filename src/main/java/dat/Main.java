@@ -1,6 +1,8 @@
 package dat;
 
+import dat.config.AppConfig;
 import dat.config.ApplicationConfig;
+import dat.config.HibernateConfig;
 import dat.controllers.impl.ExceptionController;
 import dat.exceptions.ApiException;
 import dat.exceptions.Message;
@@ -16,7 +18,10 @@ public class Main {
         ApplicationConfig.startServer(7070);
     }
 
+    // Controllers then get the Testcontainers EMF from HibernateConfig.getEntityManagerFactory()
     public static Javalin startForTest(int port) {
+        HibernateConfig.setTest(true);
+        AppConfig.useForTest();
         return ApplicationConfig.startServer(port);
     }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+package dat.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.util.*;
+
+/**
+ * Purpose: All runtime settings, read and validated once at startup.
+ * Each value comes from an environment variable, else config.properties on the classpath, else a default.
+ * Every problem is reported at once, so a misconfigured deployment fails at boot and not on the first
+ * request. Passed to HibernateConfig, SecurityController and the logging/metrics setup; nothing reads
+ * the environment or config.properties after that.
+ */
+public record AppConfig(boolean deployed,
+                        String dbUrl,
+                        String dbUsername,
+                        String dbPassword,
+                        int poolMaxSize,
+                        int poolMinIdle,
+                        long poolConnectionTimeoutMs,
+                        long poolLeakDetectionMs,
+                        long slowQueryMs,
+                        String issuer,
+                        String tokenExpireTime,
+                        String secretKey,
+                        double accessLogSampleRate,
+                        int bcryptCost,
+                        int hashThreads,
+                        int hashQueueSize,
+                        long hashTimeoutMs,
+                        boolean virtualThreads,
+                        long categoryMaskCheckMinutes,
+                        boolean resetLegacySchema) {
+
+    private static final String CONFIG_FILE = "config.properties";
+    private static final int MIN_SECRET_LENGTH = 32; // HS256 needs a 256-bit key
+
+    private static AppConfig instance;
+
+    // Loads and validates on first use, from the environment and config.properties
+    public static synchronized AppConfig get() {
+        if (instance == null) instance = load(System.getenv(), readConfigFile());
+        return instance;
+    }
+
+    // Tests run without config.properties or env vars: defaults plus a throwaway token secret.
+    // The database settings come from HibernateConfig's test properties.
+    public static synchronized AppConfig useForTest() {
+        if (instance == null) {
+            byte[] secret = new byte[MIN_SECRET_LENGTH];
+            new SecureRandom().nextBytes(secret);
+            instance = load(Map.of(), new Properties(), false).withSecurity("test", "3600000",
+                    HexFormat.of().formatHex(secret));
+        }
+        return instance;
+    }
+
+    static AppConfig load(Map<String, String> env, Properties file) {
+        return load(env, file, true);
+    }
+
+    private static AppConfig load(Map<String, String> env, Properties file, boolean requireSettings) {
+        Source source = new Source(env, file, requireSettings);
+        boolean deployed = source.string("DEPLOYED", null) != null;
+
+        String dbUrl;
+        String dbUsername;
+        String dbPassword;
+        String dbName = source.required("DB_NAME");
+        if (deployed) {
+            String connection = source.required("CONNECTION_STR");
+            dbUrl = connection == null || dbName == null ? null : connection + dbName;
+            dbUsername = source.required("DB_USERNAME");
+            dbPassword = source.required("DB_PASSWORD");
+        } else {
+            dbUrl = dbName == null ? null : "jdbc:postgresql://localhost:5432/" + dbName;
+            dbUsername = source.string("DB_USERNAME", "postgres");
+            dbPassword = source.string("DB_PASSWORD", "postgres");
+        }
+
+        int poolMaxSize = (int) source.number("DB_POOL_MAX_SIZE", 10, 1);
+        int poolMinIdle = (int) source.number("DB_POOL_MIN_IDLE", 2, 0);
+        if (poolMinIdle > poolMaxSize) source.problem("DB_POOL_MIN_IDLE must not exceed DB_POOL_MAX_SIZE");
+        long connectionTimeoutMs = source.number("DB_POOL_CONNECTION_TIMEOUT_MS", 30_000, 250); // Hikari's minimum
+        long leakDetectionMs = source.number("DB_POOL_LEAK_DETECTION_MS", 0, 0);
+        long slowQueryMs = source.number("DB_SLOW_QUERY_MS", 200, 0);
+
+        String issuer = source.required("ISSUER");
+        String tokenExpireTime = source.required("TOKEN_EXPIRE_TIME");
+        if (tokenExpireTime != null && !tokenExpireTime.matches("\\d{1,9}"))
+            source.problem("TOKEN_EXPIRE_TIME must be a whole number of milliseconds");
+        String secretKey = source.required("SECRET_KEY");
+        if (secretKey != null && secretKey.length() < MIN_SECRET_LENGTH)
+            source.problem("SECRET_KEY must be at least " + MIN_SECRET_LENGTH + " characters");
+
+        double sampleRate = source.decimal("ACCESS_LOG_SAMPLE_RATE", 1.0);
+        if (sampleRate < 0 || sampleRate > 1) source.problem("ACCESS_LOG_SAMPLE_RATE must be between 0 and 1");
+
+        // Password hashing bulkhead, see PasswordHasher. BCrypt cost 10 = jBCrypt's default.
+        int bcryptCost = (int) source.number("BCRYPT_COST", 10, 4);
+        if (bcryptCost > 31) source.problem("BCRYPT_COST must be at most 31");
+        int hashThreads = (int) source.number("PASSWORD_HASH_THREADS",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2), 1);
+        int hashQueueSize = (int) source.number("PASSWORD_HASH_QUEUE", 4L * hashThreads, 1);
+        long hashTimeoutMs = source.number("PASSWORD_HASH_TIMEOUT_MS", 5_000, 1); // queue wait + hashing
+
+        // Requests on virtual threads (JDK 21); the connection pool is then the only concurrency limit
+        boolean virtualThreads = Boolean.parseBoolean(source.string("VIRTUAL_THREADS", "false"));
+
+        // How often CategoryMaskJob repairs candidate.category_mask; 0 = only on demand via /admin
+        long categoryMaskCheckMinutes = source.number("CATEGORY_MASK_CHECK_MINUTES", 60, 0);
+
+        // One-off upgrade of a database whose tables hbm2ddl created: drop them and migrate, see HibernateConfig
+        boolean resetLegacySchema = Boolean.parseBoolean(source.string("DB_RESET_LEGACY_SCHEMA", "false"));
+
+        source.failOnProblems();
+        return new AppConfig(deployed, dbUrl, dbUsername, dbPassword, poolMaxSize, poolMinIdle,
+                connectionTimeoutMs, leakDetectionMs, slowQueryMs, issuer, tokenExpireTime, secretKey, sampleRate,
+                bcryptCost, hashThreads, hashQueueSize, hashTimeoutMs, virtualThreads, categoryMaskCheckMinutes,
+                resetLegacySchema);
+    }
+
+    private AppConfig withSecurity(String issuer, String tokenExpireTime, String secretKey) {
+        return new AppConfig(deployed, dbUrl, dbUsername, dbPassword, poolMaxSize, poolMinIdle,
+                poolConnectionTimeoutMs, poolLeakDetectionMs, slowQueryMs, issuer, tokenExpireTime, secretKey,
+                accessLogSampleRate, bcryptCost, hashThreads, hashQueueSize, hashTimeoutMs, virtualThreads,
+                categoryMaskCheckMinutes, resetLegacySchema);
+    }
+
+    private static Properties readConfigFile() {
+        Properties props = new Properties();
+        try (InputStream is = AppConfig.class.getClassLoader().getResourceAsStream(CONFIG_FILE)) {
+            if (is != null) props.load(is); // optional: deployed setups use env vars only
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + CONFIG_FILE, e);
+        }
+        return props;
+    }
+
+    // Secrets stay out of logs
+    @Override
+    public String toString() {
+        return "AppConfig[deployed=" + deployed + ", dbUrl=" + dbUrl + ", dbUsername=" + dbUsername +
+                ", poolMaxSize=" + poolMaxSize + ", poolMinIdle=" + poolMinIdle +
+                ", poolConnectionTimeoutMs=" + poolConnectionTimeoutMs + ", poolLeakDetectionMs=" + poolLeakDetectionMs +
+                ", slowQueryMs=" + slowQueryMs + ", issuer=" + issuer + ", tokenExpireTime=" + tokenExpireTime +
+                ", accessLogSampleRate=" + accessLogSampleRate + ", bcryptCost=" + bcryptCost +
+                ", hashThreads=" + hashThreads + ", hashQueueSize=" + hashQueueSize + ", hashTimeoutMs=" + hashTimeoutMs +
+                ", virtualThreads=" + virtualThreads + ", categoryMaskCheckMinutes=" + categoryMaskCheckMinutes +
+                ", resetLegacySchema=" + resetLegacySchema + "]";
+    }
+
+    // env > config.properties > default, collecting problems instead of failing on the first
+    private static final class Source {
+        private final Map<String, String> env;
+        private final Properties file;
+        private final boolean requireSettings;
+        private final List<String> problems = new ArrayList<>();
+
+        Source(Map<String, String> env, Properties file, boolean requireSettings) {
+            this.env = env;
+            this.file = file;
+            this.requireSettings = requireSettings;
+        }
+
+        String string(String key, String defaultValue) {
+            String value = env.get(key);
+            if (value == null || value.isBlank()) value = file.getProperty(key);
+            return value == null || value.isBlank() ? defaultValue : value.trim();
+        }
+
+        String required(String key) {
+            String value = string(key, null);
+            if (value == null && requireSettings) problem(key + " is not set");
+            return value;
+        }
+
+        long number(String key, long defaultValue, long min) {
+            String value = string(key, null);
+            if (value == null) return defaultValue;
+            try {
+                long parsed = Long.parseLong(value);
+                if (parsed < min) problem(key + " must be at least " + min);
+                return parsed;
+            } catch (NumberFormatException e) {
+                problem(key + " must be a whole number");
+                return defaultValue;
+            }
+        }
+
+        double decimal(String key, double defaultValue) {
+            String value = string(key, null);
+            if (value == null) return defaultValue;
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                problem(key + " must be a number");
+                return defaultValue;
+            }
+        }
+
+        void problem(String message) {
+            problems.add(message);
+        }
+
+        void failOnProblems() {
+            if (!problems.isEmpty())
+                throw new IllegalStateException("Invalid configuration: " + String.join("; ", problems));
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package dat.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dat.daos.impl.CandidateDAO;
+import dat.daos.impl.CategoryMaskJob;
+import dat.metrics.PinningMonitor;
+import dat.metrics.RouteMetrics;
 import dat.routes.Routes;
 import dat.security.controllers.AccessController;
 import dat.security.controllers.SecurityController;
 import dat.security.enums.Role;
 import dat.security.exceptions.ApiException;
+import dat.security.exceptions.ServiceUnavailableException;
 import dat.security.routes.SecurityRoutes;
+import dat.utils.AccessLog;
 import dat.utils.Utils;
 import io.javalin.Javalin;
 import io.javalin.config.JavalinConfig;
@@ -21,32 +27,48 @@ public class ApplicationConfig {
     private static SecurityController securityController = SecurityController.getInstance();
     private static AccessController accessController = new AccessController();
     private static Logger logger = LoggerFactory.getLogger(ApplicationConfig.class);
-    private static int count = 1;
 
     public static void configuration(JavalinConfig config) {
         config.showJavalinBanner = false;
+        config.useVirtualThreads = AppConfig.get().virtualThreads(); // Jetty runs each request on a virtual thread
         config.bundledPlugins.enableRouteOverview("/routes", Role.ANYONE);
         config.router.contextPath = "/api"; // base path for all endpoints
+        config.requestLogger.http(ApplicationConfig::recordRequest); // metrics (/api/metrics) and access log
         config.router.apiBuilder(routes.getRoutes());
         config.router.apiBuilder(SecurityRoutes.getSecuredRoutes());
         config.router.apiBuilder(SecurityRoutes.getSecurityRoutes());
     }
 
     public static Javalin startServer(int port) {
+        AppConfig config = AppConfig.get(); // fails here, before anything starts, if a setting is missing or invalid
+        AccessLog.setSampleRate(config.accessLogSampleRate());
+        if (config.virtualThreads()) PinningMonitor.start();
         Javalin app = Javalin.create(ApplicationConfig::configuration);
 
         app.beforeMatched(accessController::accessHandler);
-        app.after(ApplicationConfig::afterRequest);
 
         app.exception(Exception.class, ApplicationConfig::generalExceptionHandler);
         app.exception(ApiException.class, ApplicationConfig::apiExceptionHandler);
         app.start(port);
+        CategoryMaskJob.start(CandidateDAO.getInstance(HibernateConfig.getEntityManagerFactory()),
+                config.categoryMaskCheckMinutes());
         return app;
     }
 
-    public static void afterRequest(Context ctx) {
-        String requestInfo = ctx.req().getMethod() + " " + ctx.req().getRequestURI();
-        logger.info(" Request {} - {} was handled with status code {}", count++, requestInfo, ctx.status());
+    // Called once per request with the total handling time, including 404s and exceptions
+    private static void recordRequest(Context ctx, Float executionTimeMs) {
+        String route = routeOf(ctx);
+        RouteMetrics.record(ctx.method().name(), route, ctx.status().getCode(), (long) (executionTimeMs * 1000));
+        AccessLog.log(ctx, route, executionTimeMs);
+    }
+
+    // The endpoint path (/api/candidates/{id}), so ids don't create a series each
+    private static String routeOf(Context ctx) {
+        try {
+            return ctx.endpointHandlerPath();
+        } catch (RuntimeException e) {
+            return "unmatched"; // no endpoint handler, e.g. a 404
+        }
     }
 
     public static void stopServer(Javalin app) {
@@ -60,6 +82,9 @@ public class ApplicationConfig {
 
     public static void apiExceptionHandler(ApiException e, Context ctx) {
         ctx.status(e.getCode());
+        if (e instanceof ServiceUnavailableException unavailable) {
+            ctx.header("Retry-After", String.valueOf(unavailable.getRetryAfterSeconds()));
+        }
         logger.warn("An API exception occurred: Code: {}, Message: {}", e.getCode(), e.getMessage());
         ctx.json(Utils.convertToJsonMessage(ctx, "warning", e.getMessage()));
     }
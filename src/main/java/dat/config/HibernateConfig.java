@@ -1,19 +1,30 @@
 package dat.config;
 
 import dat.entities.*;
+import dat.metrics.PoolMetrics;
+import dat.metrics.SqlMetrics;
 import dat.security.entities.Role;
 import dat.security.entities.User;
-import dat.utils.Utils;
 import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
 import org.hibernate.SessionFactory;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.service.ServiceRegistry;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 public class HibernateConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(HibernateConfig.class);
+
     private static EntityManagerFactory emf;
     private static EntityManagerFactory emfTest;
     private static Boolean isTest = false;
@@ -26,7 +37,11 @@ public class HibernateConfig {
         return isTest;
     }
 
+    // In test mode this is the test EMF, so DAO tests and the server started by Main.startForTest share one
+    // database (and one Flyway clean) instead of each creating its own
     public static EntityManagerFactory getEntityManagerFactory() {
+        if (getTest())
+            return getEntityManagerFactoryForTest();
         if (emf == null)
             emf = createEMF(getTest());
         return emf;
@@ -46,6 +61,8 @@ public class HibernateConfig {
         configuration.addAnnotatedClass(dat.entities.SkillCategory.class);
         configuration.addAnnotatedClass(dat.entities.Skill.class);
         configuration.addAnnotatedClass(dat.entities.CandidateSkill.class);
+        configuration.addAnnotatedClass(User.class);
+        configuration.addAnnotatedClass(Role.class);
 
     }
 
@@ -53,15 +70,17 @@ public class HibernateConfig {
         try {
             Configuration configuration = new Configuration();
             Properties props = new Properties();
+            AppConfig config = forTest ? AppConfig.useForTest() : AppConfig.get();
             // Set the properties
-            setBaseProperties(props);
+            setBaseProperties(props, config);
             if (forTest) {
                 props = setTestProperties(props);
-            } else if (System.getenv("DEPLOYED") != null) {
-                setDeployedProperties(props);
+            } else if (config.deployed()) {
+                setDeployedProperties(props, config);
             } else {
-                props = setDevProperties(props);
+                props = setDevProperties(props, config);
             }
+            migrate(props, forTest, config.resetLegacySchema());
             configuration.setProperties(props);
             getAnnotationConfiguration(configuration);
 
@@ -78,42 +97,144 @@ public class HibernateConfig {
         }
     }
 
-    private static Properties setBaseProperties(Properties props) {
+    // Applies src/main/resources/db/migration before Hibernate validates the mappings against it.
+    // Tests start from an empty schema every time, as create-drop used to give them.
+    // Databases from before Flyway have hbm2ddl's tables but no history table, and V1 would fail on them.
+    // Baselining them would skip V1's indexes and sequences, so they are dropped and migrated instead, only
+    // when DB_RESET_LEGACY_SCHEMA=true (the old hbm2ddl setting dropped the data on every boot anyway).
+    // Once migrated the history table exists, so leaving the setting on does nothing.
+    private static void migrate(Properties props, boolean forTest, boolean resetLegacySchema) {
+        String url = props.getProperty("hibernate.connection.url");
+        String username = props.getProperty("hibernate.connection.username");
+        String password = props.getProperty("hibernate.connection.password");
+        boolean legacy = !forTest && hasLegacySchema(url, username, password);
+        if (legacy && !resetLegacySchema) {
+            throw new IllegalStateException("The database has tables created by hbm2ddl but no Flyway history. " +
+                    "Back up anything worth keeping, then start once with DB_RESET_LEGACY_SCHEMA=true to drop " +
+                    "the schema's objects and migrate.");
+        }
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, username, password)
+                .locations("classpath:db/migration")
+                .cleanDisabled(!forTest && !legacy)
+                .load();
+        if (legacy) logger.warn("DB_RESET_LEGACY_SCHEMA: dropping the hbm2ddl schema before the first migration");
+        if (forTest || legacy) flyway.clean();
+        flyway.migrate();
+    }
+
+    // Our tables exist in the current schema, Flyway's history table does not
+    private static boolean hasLegacySchema(String url, String username, String password) {
+        String sql = "SELECT count(*) FILTER (WHERE table_name = 'candidate'), " +
+                "count(*) FILTER (WHERE table_name = 'flyway_schema_history') " +
+                "FROM information_schema.tables WHERE table_schema = current_schema()";
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1) > 0 && rs.getInt(2) == 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not inspect the database schema before migrating", e);
+        }
+    }
+
+    private static Properties setBaseProperties(Properties props, AppConfig config) {
         props.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
         props.put("hibernate.connection.driver_class", "org.postgresql.Driver");
-        props.put("hibernate.hbm2ddl.auto", "create");
+        props.put("hibernate.hbm2ddl.auto", "validate"); // the schema is owned by the Flyway migrations
         props.put("hibernate.current_session_context_class", "thread");
-        props.put("hibernate.show_sql", "true");
-        props.put("hibernate.format_sql", "true");
-        props.put("hibernate.use_sql_comments", "true");
+        setPoolProperties(props, config);
+        setCacheProperties(props);
+        setBatchProperties(props);
+        setMetricsProperties(props, config);
         return props;
     }
 
-    private static Properties setDeployedProperties(Properties props) {
-        String DBName = System.getenv("DB_NAME");
-        props.setProperty("hibernate.connection.url", System.getenv("CONNECTION_STR") + DBName);
-        props.setProperty("hibernate.connection.username", System.getenv("DB_USERNAME"));
-        props.setProperty("hibernate.connection.password", System.getenv("DB_PASSWORD"));
+    // JDBC timing and the slow statement log, see SqlMetrics
+    private static Properties setMetricsProperties(Properties props, AppConfig config) {
+        props.put("hibernate.session_factory.statement_inspector", SqlMetrics.Inspector.class.getName());
+        props.put("hibernate.session.events.auto", SqlMetrics.Listener.class.getName());
+        SqlMetrics.setSlowThresholdMs(config.slowQueryMs());
         return props;
     }
 
-    private static Properties setDevProperties(Properties props) {
-        String DBName = Utils.getPropertyValue("DB_NAME", "config.properties");
-        props.put("hibernate.connection.url", "jdbc:postgresql://localhost:5432/" + DBName);
-        props.put("hibernate.connection.username", "postgres");
-        props.put("hibernate.connection.password", "postgres");
+    // Sequence ids (allocationSize 50, pooled-lo) let Hibernate defer inserts and send them in JDBC batches.
+    // IDENTITY ids forced an immediate INSERT per row.
+    private static Properties setBatchProperties(Properties props) {
+        props.put("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+        props.put("hibernate.jdbc.batch_size", "50");
+        props.put("hibernate.order_inserts", "true");
+        props.put("hibernate.order_updates", "true");
+        props.put("hibernate.hikari.dataSource.reWriteBatchedInserts", "true"); // pgjdbc: one multi-row INSERT per batch
+        return props;
+    }
+
+    // Second-level + query cache for reference data (Skill). Regions are configured in application.conf
+    private static Properties setCacheProperties(Properties props) {
+        props.put("hibernate.cache.use_second_level_cache", "true");
+        props.put("hibernate.cache.use_query_cache", "true");
+        props.put("hibernate.cache.region.factory_class", "jcache");
+        props.put("hibernate.javax.cache.provider", "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+        props.put("hibernate.javax.cache.missing_cache_strategy", "create");
+        return props;
+    }
+
+    // HikariCP instead of Hibernate's built-in pool. Every DAO call opens its own EntityManager,
+    // so these settings decide our throughput. Sized through AppConfig (DB_POOL_* env vars).
+    private static Properties setPoolProperties(Properties props, AppConfig config) {
+        props.put("hibernate.connection.provider_class", "org.hibernate.hikaricp.internal.HikariCPConnectionProvider");
+        props.put("hibernate.hikari.poolName", "dat-pool");
+        props.put("hibernate.hikari.maximumPoolSize", String.valueOf(config.poolMaxSize()));
+        props.put("hibernate.hikari.minimumIdle", String.valueOf(config.poolMinIdle()));
+        props.put("hibernate.hikari.connectionTimeout", String.valueOf(config.poolConnectionTimeoutMs()));
+        props.put("hibernate.hikari.leakDetectionThreshold", String.valueOf(config.poolLeakDetectionMs())); // 0 = off
+        props.put("hibernate.hikari.metricsTrackerFactory", PoolMetrics.class.getName());
+        return props;
+    }
+
+    private static Properties setDeployedProperties(Properties props, AppConfig config) {
+        props.setProperty("hibernate.connection.url", config.dbUrl());
+        props.setProperty("hibernate.connection.username", config.dbUsername());
+        props.setProperty("hibernate.connection.password", config.dbPassword());
+        return props;
+    }
+
+    private static Properties setDevProperties(Properties props, AppConfig config) {
+        props.put("hibernate.connection.url", config.dbUrl());
+        props.put("hibernate.connection.username", config.dbUsername());
+        props.put("hibernate.connection.password", config.dbPassword());
+        setSqlLogging(props);
+        setStatistics(props);
+        return props;
+    }
+
+    // SQL echo for dev and test only. show_sql prints synchronously to stdout on the request thread,
+    // so deployed mode leaves it off; SqlMetrics still logs slow statements there.
+    private static Properties setSqlLogging(Properties props) {
+        props.put("hibernate.show_sql", "true");
+        props.put("hibernate.format_sql", "true");
+        props.put("hibernate.use_sql_comments", "true");
+        return props;
+    }
+
+    // Hibernate's Statistics (entity, query and statement counters; the DAO tests assert statement counts)
+    // for dev and test only. They add bookkeeping to every statement and cache access and log a summary
+    // per session; deployed mode has SqlMetrics for statements and CacheMetrics reads JCache's own counters.
+    private static Properties setStatistics(Properties props) {
+        props.put("hibernate.generate_statistics", "true");
         return props;
     }
 
     private static Properties setTestProperties(Properties props) {
         //props.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
         props.put("hibernate.connection.driver_class", "org.testcontainers.jdbc.ContainerDatabaseDriver");
-        props.put("hibernate.connection.url", "jdbc:tc:postgresql:15.3-alpine3.18:///test_db");
+        // TC_DAEMON keeps the container up between connections: Flyway migrates over its own connection first
+        props.put("hibernate.connection.url", "jdbc:tc:postgresql:15.3-alpine3.18:///test_db?TC_DAEMON=true");
         props.put("hibernate.connection.username", "postgres");
         props.put("hibernate.connection.password", "postgres");
         props.put("hibernate.archive.autodetection", "class");
-        props.put("hibernate.show_sql", "true");
-        props.put("hibernate.hbm2ddl.auto", "create-drop"); // update for production
+        setSqlLogging(props);
+        setStatistics(props);
         return props;
     }
 }
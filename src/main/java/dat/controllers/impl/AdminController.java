@@ -0,0 +1,32 @@
+package dat.controllers.impl;
+
+import dat.config.HibernateConfig;
+import dat.daos.ICandidateDAO;
+import dat.daos.impl.CandidateDAO;
+import dat.dtos.CategoryMaskCheckDTO;
+import dat.dtos.PoolStatsDTO;
+import dat.metrics.CacheMetrics;
+import dat.metrics.DaoMetrics;
+import dat.metrics.PoolMetrics;
+import io.javalin.http.Context;
+import jakarta.persistence.EntityManagerFactory;
+
+public class AdminController {
+
+    private final EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
+    private final ICandidateDAO candidateDao = DaoMetrics.instrument(ICandidateDAO.class, CandidateDAO.getInstance(emf));
+
+    public void pool(Context ctx) {
+        ctx.status(200).json(PoolMetrics.snapshot(), PoolStatsDTO.class);
+    }
+
+    public void cache(Context ctx) {
+        ctx.status(200).json(CacheMetrics.snapshot());
+    }
+
+    // GET reports how many candidate.category_mask values are stale, POST rewrites them
+    public void categoryMasks(Context ctx) {
+        boolean repair = "POST".equalsIgnoreCase(ctx.method().name());
+        ctx.status(200).json(candidateDao.checkCategoryMasks(repair), CategoryMaskCheckDTO.class);
+    }
+}
@@ -1,20 +1,50 @@
 package dat.controllers.impl;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dat.entities.SkillCategory;
 import dat.config.HibernateConfig;
 import dat.controllers.IController;
+import dat.daos.ICandidateDAO;
+import dat.daos.ISkillDAO;
 import dat.daos.impl.CandidateDAO;
+import dat.daos.impl.SkillDAO;
 import dat.dtos.CandidateDTO;
+import dat.dtos.ImportResultDTO;
+import dat.dtos.LinkResultDTO;
+import dat.dtos.MatchDTO;
+import dat.dtos.MatchRequestDTO;
+import dat.dtos.PageDTO;
+import dat.dtos.SimilarCandidateDTO;
+import dat.dtos.SkillLinksDTO;
+import dat.dtos.SkillDTO;
 import dat.exceptions.Message;
+import dat.index.MatchQuery;
+import dat.metrics.DaoMetrics;
+import dat.utils.CandidateRowParser;
+import dat.utils.Cursor;
+import dat.utils.Utils;
 import io.javalin.http.Context;
 import jakarta.persistence.EntityManagerFactory;
 
-import java.util.List;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 public class CandidateController implements IController<CandidateDTO, Integer> {
 
+    private static final int IMPORT_BATCH_SIZE = 500;
+    private static final int DEFAULT_SIMILAR = 20;
+    private static final int MAX_LINKS_PER_REQUEST = 10_000;
+
     private final EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
-    private final CandidateDAO dao = CandidateDAO.getInstance(emf);
+    private final ICandidateDAO dao = DaoMetrics.instrument(ICandidateDAO.class, CandidateDAO.getInstance(emf));
+    private final ISkillDAO skillDao = DaoMetrics.instrument(ISkillDAO.class, SkillDAO.getInstance(emf));
+    private final ObjectMapper jsonMapper = new Utils().getObjectMapper();
 
     @Override
     public void read(Context ctx) {
@@ -32,24 +62,76 @@ public class CandidateController implements IController<CandidateDTO, Integer> {
 
 
     // checks if it is null or blank, if it is null or blank it will return all candidates
-    // else it will only return candidates that have the specified category
+    // else it will only return candidates that have the specified category.
+    // ?category=DB,DEVOPS matches candidates with a skill in any of the listed categories.
+    // ?skills filters on skill ids instead (see readAllBySkills, not paged).
+    // ?limit and/or ?next switch the response to a keyset page: {"items": [...], "next": "..."}
     @Override
     public void readAll(Context ctx) {
         String catStr = ctx.queryParam("category");
-        if (catStr == null || catStr.isBlank()) {
-            List<CandidateDTO> list = dao.readAll();
-            ctx.status(200).json(list, CandidateDTO.class);
+        Set<SkillCategory> cat = null;
+        if (catStr != null && !catStr.isBlank()) {
+            try {
+                cat = EnumSet.noneOf(SkillCategory.class);
+                for (String token : catStr.split(",")) {
+                    if (!token.isBlank()) cat.add(SkillCategory.valueOf(token.trim().toUpperCase()));
+                }
+                if (cat.isEmpty()) cat = null;
+            } catch (IllegalArgumentException ex) {
+                ctx.status(400).json(new Message(400,
+                        "Invalid category. Allowed values: PROG_LANG, DB, DEVOPS, FRONTEND, TESTING, DATA, FRAMEWORK"));
+                return;
+            }
+        }
+
+        String skillsStr = ctx.queryParam("skills");
+        if (skillsStr != null && !skillsStr.isBlank()) {
+            readAllBySkills(ctx, skillsStr, cat);
+            return;
+        }
+
+        if (ctx.queryParam("limit") != null || ctx.queryParam("next") != null) {
+            readPage(ctx, cat);
+            return;
+        }
+
+        List<CandidateDTO> list = cat == null ? dao.readAll() : dao.readAllByCategories(cat);
+        ctx.status(200).json(list, CandidateDTO.class);
+    }
+
+    // ?skills=1,4,7 with ?match=all (default, AND) or ?match=any (OR); can be combined with ?category
+    private void readAllBySkills(Context ctx, String skillsStr, Set<SkillCategory> cat) {
+        List<Integer> skillIds = new ArrayList<>();
+        try {
+            for (String token : skillsStr.split(",")) {
+                if (!token.isBlank()) skillIds.add(Integer.valueOf(token.trim()));
+            }
+        } catch (NumberFormatException ex) {
+            ctx.status(400).json(new Message(400, "skills must be a comma separated list of skill ids"));
             return;
         }
+        boolean matchAll = !"any".equalsIgnoreCase(ctx.queryParam("match"));
+        List<CandidateDTO> list = dao.readAllBySkills(skillIds, matchAll, cat);
+        ctx.status(200).json(list, CandidateDTO.class);
+    }
+
+    private void readPage(Context ctx, Set<SkillCategory> cat) {
+        int limit = ctx.queryParamAsClass("limit", Integer.class)
+                .check(l -> l > 0 && l <= PageDTO.MAX_LIMIT, "limit must be between 1 and " + PageDTO.MAX_LIMIT)
+                .getOrDefault(PageDTO.DEFAULT_LIMIT);
 
+        Cursor after;
         try {
-            SkillCategory cat = SkillCategory.valueOf(catStr.trim().toUpperCase());
-            List<CandidateDTO> list = dao.readAllByCategory(cat);
-            ctx.status(200).json(list, CandidateDTO.class);
+            after = Cursor.decode(ctx.queryParam("next"));
         } catch (IllegalArgumentException ex) {
-            ctx.status(400).json(new Message(400,
-                    "Invalid category. Allowed values: PROG_LANG, DB, DEVOPS, FRONTEND, TESTING, DATA, FRAMEWORK"));
+            ctx.status(400).json(new Message(400, "Invalid cursor"));
+            return;
         }
+
+        PageDTO<CandidateDTO> page = cat == null
+                ? dao.readPage(after, limit)
+                : dao.readPageByCategories(cat, after, limit);
+        ctx.status(200).json(page);
     }
 
     @Override
@@ -80,7 +162,10 @@ public class CandidateController implements IController<CandidateDTO, Integer> {
                 .check(this::validatePrimaryKey, "Not a valid id")
                 .get();
 
-        dao.delete(id);
+        if (!dao.delete(id)) {
+            ctx.status(404).json(new Message(404, "Candidate " + id + " not found"));
+            return;
+        }
         ctx.status(204).json(new Message(204, "Candidate " + id + " deleted"));
     }
 
@@ -102,9 +187,239 @@ public class CandidateController implements IController<CandidateDTO, Integer> {
         ctx.status(200).json(updated, CandidateDTO.class);
     }
 
+    // 204 without a body; ?return=candidate answers 200 with the updated candidate instead
+    public void unlinkSkill(Context ctx) {
+        int candidateId = ctx.pathParamAsClass("candidateId", Integer.class)
+                .check(this::validatePrimaryKey, "Not a valid candidate id")
+                .get();
+        int skillId = ctx.pathParamAsClass("skillId", Integer.class)
+                .check(this::validatePrimaryKey, "Not a valid skill id")
+                .get();
+        boolean returnCandidate = "candidate".equals(ctx.queryParam("return"));
+
+        if (!dao.unlinkSkill(candidateId, skillId)) {
+            ctx.status(404).json(new Message(404,
+                    "Candidate " + candidateId + " has no skill " + skillId));
+            return;
+        }
+        if (returnCandidate) {
+            ctx.status(200).json(dao.read(candidateId), CandidateDTO.class);
+        } else {
+            ctx.status(204);
+        }
+    }
+
+    // PUT replaces the candidate's skill set with the body, POST adds to it. Body: [1, 4, 7]
+    public void assignSkills(Context ctx) {
+        int candidateId = ctx.pathParamAsClass("candidateId", Integer.class)
+                .check(this::validatePrimaryKey, "Not a valid candidate id")
+                .get();
+        List<Integer> skillIds = Arrays.asList(ctx.bodyValidator(Integer[].class)
+                .check(ids -> ids.length <= MAX_LINKS_PER_REQUEST, "At most " + MAX_LINKS_PER_REQUEST + " skills per request")
+                .check(ids -> Arrays.stream(ids).allMatch(this::validatePrimaryKey), "Not a valid skill id")
+                .get());
+        boolean replace = "PUT".equalsIgnoreCase(ctx.method().name());
+
+        LinkResultDTO result = dao.assignSkills(Map.of(candidateId, skillIds), replace);
+        if (!result.isApplied()) {
+            ctx.status(404).json(new Message(404, notFound(result)));
+            return;
+        }
+        ctx.status(200).json(dao.read(candidateId), CandidateDTO.class);
+    }
+
+    // Links for many candidates in one transaction. ?mode=add (default) or ?mode=replace.
+    // Body: [{"candidateId": 1, "skillIds": [1, 4]}, ...]; repeated candidates are merged.
+    public void assignSkillsBulk(Context ctx) {
+        String mode = ctx.queryParamAsClass("mode", String.class)
+                .check(m -> m.equals("add") || m.equals("replace"), "mode must be add or replace")
+                .getOrDefault("add");
+        SkillLinksDTO[] links = ctx.bodyValidator(SkillLinksDTO[].class)
+                .check(ls -> Arrays.stream(ls).allMatch(l -> l != null && validatePrimaryKey(l.getCandidateId())
+                        && l.getSkillIds() != null && l.getSkillIds().stream().allMatch(this::validatePrimaryKey)),
+                        "Every entry needs a valid candidateId and a list of valid skillIds")
+                .check(ls -> Arrays.stream(ls).mapToLong(l -> l.getSkillIds().size()).sum() <= MAX_LINKS_PER_REQUEST,
+                        "At most " + MAX_LINKS_PER_REQUEST + " links per request")
+                .get();
+
+        Map<Integer, Set<Integer>> skillsByCandidate = new LinkedHashMap<>();
+        for (SkillLinksDTO link : links) {
+            skillsByCandidate.computeIfAbsent(link.getCandidateId(), id -> new LinkedHashSet<>()).addAll(link.getSkillIds());
+        }
+        if (skillsByCandidate.isEmpty()) {
+            ctx.status(400).json(new Message(400, "No links given"));
+            return;
+        }
+
+        LinkResultDTO result = dao.assignSkills(skillsByCandidate, mode.equals("replace"));
+        ctx.status(result.isApplied() ? 200 : 404).json(result, LinkResultDTO.class);
+    }
+
+    private static String notFound(LinkResultDTO result) {
+        StringBuilder message = new StringBuilder();
+        if (!result.getUnknownCandidates().isEmpty()) message.append("Candidate ").append(result.getUnknownCandidates()).append(" not found");
+        if (!result.getUnknownSkills().isEmpty()) {
+            if (message.length() > 0) message.append(", ");
+            message.append("Skill ").append(result.getUnknownSkills()).append(" not found");
+        }
+        return message.toString();
+    }
+
+    // Full export as one JSON array, written to the response while the DAO scrolls the table
+    public void export(Context ctx) throws IOException {
+        ctx.status(200).contentType("application/json");
+        try (JsonGenerator json = jsonMapper.createGenerator(ctx.outputStream(), JsonEncoding.UTF8)) {
+            json.writeStartArray();
+            dao.exportAll(dto -> {
+                try {
+                    json.writeObject(dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // client went away; abort the scroll
+                }
+            });
+            json.writeEndArray();
+        }
+    }
+
+    // ?k=20: the candidates whose skill sets are most similar (Jaccard) to this one, best first
+    public void similar(Context ctx) {
+        int id = ctx.pathParamAsClass("id", Integer.class)
+                .check(this::validatePrimaryKey, "Not a valid id")
+                .get();
+        int k = ctx.queryParamAsClass("k", Integer.class)
+                .check(v -> v > 0 && v <= PageDTO.MAX_LIMIT, "k must be between 1 and " + PageDTO.MAX_LIMIT)
+                .getOrDefault(DEFAULT_SIMILAR);
+
+        List<SimilarCandidateDTO> similar = dao.readSimilar(id, k);
+        if (similar == null) {
+            ctx.status(404).json(new Message(404, "Candidate " + id + " not found"));
+            return;
+        }
+        ctx.status(200).json(similar, SimilarCandidateDTO.class);
+    }
+
+    // Top-K ranking for a weighted skill requirement, see CandidateMatcher for the scoring.
+    // Body: {"required": ["Java", 4], "optional": [...], "weights": {"DB": 2.0}, "requireAll": false, "limit": 20}
+    public void match(Context ctx) {
+        MatchRequestDTO request = ctx.bodyValidator(MatchRequestDTO.class)
+                .check(r -> r.getRequired() != null && !r.getRequired().isEmpty(), "At least one required skill is needed")
+                .check(r -> r.getLimit() == null || (r.getLimit() > 0 && r.getLimit() <= PageDTO.MAX_LIMIT),
+                        "limit must be between 1 and " + PageDTO.MAX_LIMIT)
+                .check(r -> r.getWeights() == null || r.getWeights().values().stream().allMatch(w -> w != null && w >= 0),
+                        "weights must be zero or positive")
+                .get();
+
+        Set<Integer> required;
+        Set<Integer> optional;
+        try {
+            List<SkillDTO> skills = skillDao.readAll(); // served from the query cache
+            required = resolveSkills(request.getRequired(), skills);
+            optional = resolveSkills(request.getOptional(), skills);
+        } catch (IllegalArgumentException ex) {
+            ctx.status(400).json(new Message(400, ex.getMessage()));
+            return;
+        }
+
+        MatchQuery query = new MatchQuery(required, optional,
+                request.getWeights() == null ? Map.of() : request.getWeights(),
+                Boolean.TRUE.equals(request.getRequireAll()),
+                request.getLimit() == null ? PageDTO.DEFAULT_LIMIT : request.getLimit());
+        ctx.status(200).json(dao.match(query), MatchDTO.class);
+    }
+
+    // A reference is a skill name (case-insensitive) or a skill id. A name wins, so a skill named "4"
+    // is that skill and not the skill with id 4; a number is only an id when no skill has it as its name.
+    static Set<Integer> resolveSkills(List<String> references, Collection<SkillDTO> skills) {
+        Set<Integer> result = new LinkedHashSet<>();
+        if (references == null) return result;
+        Set<Integer> skillIds = new HashSet<>();
+        Map<String, Integer> skillIdsByName = new HashMap<>();
+        for (SkillDTO skill : skills) {
+            skillIds.add(skill.getId());
+            if (skill.getName() != null) skillIdsByName.put(skill.getName().trim().toLowerCase(Locale.ROOT), skill.getId());
+        }
+        for (String reference : references) {
+            String key = reference == null ? null : reference.trim();
+            Integer id = key == null ? null : skillIdsByName.get(key.toLowerCase(Locale.ROOT));
+            if (id == null && key != null && key.matches("\\d{1,9}") && skillIds.contains(Integer.valueOf(key)))
+                id = Integer.valueOf(key);
+            if (id == null) throw new IllegalArgumentException("Unknown skill: " + reference);
+            result.add(id);
+        }
+        return result;
+    }
+
+    // Bulk import. The body is NDJSON (one candidate per line) or CSV when Content-Type is text/csv.
+    // It is read line by line and written IMPORT_BATCH_SIZE rows per transaction, so memory stays flat
+    // whatever the file size. Bad rows are reported by line number and skipped; the rest are imported.
+    // The skills are read once up front and shared by every batch.
+    public void importCandidates(Context ctx) throws IOException {
+        boolean csv = ctx.contentType() != null && ctx.contentType().toLowerCase().contains("csv");
+        ImportResultDTO result = new ImportResultDTO();
+        List<SkillDTO> skills = skillDao.readAll();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(ctx.bodyInputStream(), StandardCharsets.UTF_8))) {
+            CandidateRowParser parser;
+            int lineNo = 0;
+            try {
+                if (csv) {
+                    lineNo++;
+                    parser = CandidateRowParser.csv(reader.readLine());
+                } else {
+                    parser = CandidateRowParser.ndjson();
+                }
+            } catch (IllegalArgumentException ex) {
+                ctx.status(400).json(new Message(400, ex.getMessage()));
+                return;
+            }
+
+            List<Integer> lines = new ArrayList<>();
+            List<CandidateDTO> rows = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                if (line.isBlank()) continue;
+                try {
+                    CandidateDTO dto = parser.parse(line);
+                    String invalid = validateImported(dto);
+                    if (invalid != null) throw new IllegalArgumentException(invalid);
+                    lines.add(lineNo);
+                    rows.add(dto);
+                } catch (IllegalArgumentException ex) {
+                    result.addError(lineNo, ex.getMessage());
+                }
+                if (rows.size() == IMPORT_BATCH_SIZE) importBatch(lines, rows, skills, result);
+            }
+            importBatch(lines, rows, skills, result);
+        }
+        ctx.status(200).json(result);
+    }
+
+    private void importBatch(List<Integer> lines, List<CandidateDTO> rows, List<SkillDTO> skills, ImportResultDTO result) {
+        if (rows.isEmpty()) return;
+        List<String> errors = dao.importBatch(rows, skills);
+        for (int i = 0; i < errors.size(); i++) {
+            if (errors.get(i) == null) result.addImported(1);
+            else result.addError(lines.get(i), errors.get(i));
+        }
+        lines.clear();
+        rows.clear();
+    }
+
+    // Same rules as validateEntity, for rows that don't come through a body validator
+    private String validateImported(CandidateDTO dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) return "Not a valid name";
+        if (dto.getPhone() == null || !dto.getPhone().matches("\\d{8}")) return "Phone must be 8 digits";
+        if (dto.getEducation() == null || dto.getEducation().isBlank()) return "Not a valid education";
+        return null;
+    }
+
+    // Only checks the id's shape. Whether the row exists is decided by the DAO operation itself,
+    // in the same EntityManager, so a request costs one connection checkout instead of two.
     @Override
     public boolean validatePrimaryKey(Integer id) {
-        return id != null && id > 0 && dao.validatePrimaryKey(id);
+        return id != null && id > 0;
     }
 
     @Override
@@ -0,0 +1,42 @@
+package dat.controllers.impl;
+
+import dat.exceptions.Message;
+import dat.metrics.DaoMetrics;
+import dat.metrics.HashingMetrics;
+import dat.metrics.PinningMonitor;
+import dat.metrics.RouteMetrics;
+import dat.metrics.SqlMetrics;
+import io.javalin.http.Context;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+public class MetricsController {
+
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+
+    // Prometheus scrape target. Served on loopback only: the route needs no token, and the numbers
+    // (pool state, SQL and route timings) are not for the outside. Scrape through a local agent or sidecar.
+    public void prometheus(Context ctx) {
+        if (!isLoopback(ctx.req().getRemoteAddr())) {
+            ctx.status(403).json(new Message(403, "Metrics are only served on the loopback interface"));
+            return;
+        }
+        StringBuilder out = new StringBuilder(4096);
+        RouteMetrics.writePrometheus(out);
+        DaoMetrics.writePrometheus(out);
+        SqlMetrics.writePrometheus(out);
+        HashingMetrics.writePrometheus(out);
+        PinningMonitor.writePrometheus(out);
+        ctx.status(200).contentType(PROMETHEUS_TEXT).result(out.toString());
+    }
+
+    static boolean isLoopback(String remoteAddress) {
+        if (remoteAddress == null) return false;
+        try {
+            return InetAddress.getByName(remoteAddress).isLoopbackAddress(); // an IP literal, no DNS lookup
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
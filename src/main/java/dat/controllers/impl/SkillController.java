@@ -2,10 +2,14 @@ package dat.controllers.impl;
 
 import dat.config.HibernateConfig;
 import dat.controllers.IController;
+import dat.daos.ISkillDAO;
 import dat.daos.impl.SkillDAO;
+import dat.dtos.PageDTO;
 import dat.dtos.SkillDTO;
 import dat.entities.SkillCategory;
 import dat.exceptions.Message;
+import dat.metrics.DaoMetrics;
+import dat.utils.Cursor;
 import io.javalin.http.Context;
 import jakarta.persistence.EntityManagerFactory;
 
@@ -13,8 +17,11 @@ import java.util.List;
 
 public class SkillController implements IController<SkillDTO, Integer> {
 
+    private static final int DEFAULT_SUGGESTIONS = 10;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final EntityManagerFactory emf = HibernateConfig.getEntityManagerFactory();
-    private final SkillDAO dao = SkillDAO.getInstance(emf);
+    private final ISkillDAO dao = DaoMetrics.instrument(ISkillDAO.class, SkillDAO.getInstance(emf));
 
     @Override
     public void read(Context ctx) {
@@ -30,12 +37,43 @@ public class SkillController implements IController<SkillDTO, Integer> {
         ctx.status(200).json(dto, SkillDTO.class);
     }
 
+    // ?limit and/or ?next switch the response to a keyset page: {"items": [...], "next": "..."}
     @Override
     public void readAll(Context ctx) {
+        if (ctx.queryParam("limit") != null || ctx.queryParam("next") != null) {
+            readPage(ctx);
+            return;
+        }
         List<SkillDTO> list = dao.readAll();
         ctx.status(200).json(list, SkillDTO.class);
     }
 
+    private void readPage(Context ctx) {
+        int limit = ctx.queryParamAsClass("limit", Integer.class)
+                .check(l -> l > 0 && l <= PageDTO.MAX_LIMIT, "limit must be between 1 and " + PageDTO.MAX_LIMIT)
+                .getOrDefault(PageDTO.DEFAULT_LIMIT);
+
+        Cursor after;
+        try {
+            after = Cursor.decode(ctx.queryParam("next"));
+        } catch (IllegalArgumentException ex) {
+            ctx.status(400).json(new Message(400, "Invalid cursor"));
+            return;
+        }
+        ctx.status(200).json(dao.readPage(after, limit));
+    }
+
+    // Autocomplete: ?q=ku&limit=10, case and accent insensitive, most held skills first
+    public void suggest(Context ctx) {
+        String q = ctx.queryParamAsClass("q", String.class)
+                .check(v -> !v.isBlank(), "q must not be blank")
+                .get();
+        int limit = ctx.queryParamAsClass("limit", Integer.class)
+                .check(l -> l > 0 && l <= MAX_SUGGESTIONS, "limit must be between 1 and " + MAX_SUGGESTIONS)
+                .getOrDefault(DEFAULT_SUGGESTIONS);
+        ctx.status(200).json(dao.suggest(q, limit), SkillDTO.class);
+    }
+
     @Override
     public void create(Context ctx) {
         SkillDTO incoming = validateEntity(ctx);
@@ -64,13 +102,18 @@ public class SkillController implements IController<SkillDTO, Integer> {
                 .check(this::validatePrimaryKey, "Not a valid id")
                 .get();
 
-        dao.delete(id);
+        if (!dao.delete(id)) {
+            ctx.status(404).json(new Message(404, "Skill " + id + " not found"));
+            return;
+        }
         ctx.status(204).json(new Message(204, "Skill " + id + " deleted"));
     }
 
+    // Only checks the id's shape. Whether the row exists is decided by the DAO operation itself,
+    // in the same EntityManager, so a request costs one connection checkout instead of two.
     @Override
     public boolean validatePrimaryKey(Integer id) {
-        return id != null && id > 0 && dao.validatePrimaryKey(id);
+        return id != null && id > 0;
     }
 
     @Override
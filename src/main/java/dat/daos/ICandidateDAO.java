@@ -1,9 +1,37 @@
 package dat.daos;
 
 import dat.dtos.CandidateDTO;
+import dat.dtos.CategoryMaskCheckDTO;
+import dat.dtos.LinkResultDTO;
+import dat.dtos.MatchDTO;
+import dat.dtos.PageDTO;
+import dat.dtos.SimilarCandidateDTO;
+import dat.dtos.SkillDTO;
+import dat.entities.SkillCategory;
+import dat.index.MatchQuery;
+import dat.utils.Cursor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface ICandidateDAO extends IDAO<CandidateDTO, Integer>
 {
     CandidateDTO linkSkill(Integer candidateId, Integer skillId);
-    CandidateDTO unlinkSkill(Integer candidateId, Integer skillId);
+    boolean unlinkSkill(Integer candidateId, Integer skillId);
+    LinkResultDTO assignSkills(Map<Integer, ? extends Collection<Integer>> skillsByCandidate, boolean replace);
+    List<CandidateDTO> readAllByCategory(SkillCategory category);
+    List<CandidateDTO> readAllByCategories(Set<SkillCategory> categories); // any of the categories
+    List<CandidateDTO> readAllBySkills(Collection<Integer> skillIds, boolean matchAll, Set<SkillCategory> categories);
+    List<CandidateDTO> readByIds(Collection<Integer> ids);
+    PageDTO<CandidateDTO> readPage(Cursor after, int limit);
+    PageDTO<CandidateDTO> readPageByCategories(Set<SkillCategory> categories, Cursor after, int limit);
+    // skills: every known skill, read once per import. Per row: null if imported, else why it was skipped
+    List<String> importBatch(List<CandidateDTO> rows, Collection<SkillDTO> skills);
+    List<MatchDTO> match(MatchQuery query); // best first, at most query.limit()
+    List<SimilarCandidateDTO> readSimilar(Integer id, int k); // null if the candidate does not exist
+    CategoryMaskCheckDTO checkCategoryMasks(boolean repair); // candidate.category_mask vs. the links
+    void exportAll(Consumer<CandidateDTO> sink); // every candidate with skills, one at a time in id order
 }
@@ -8,7 +8,7 @@ public interface IDAO<T, I> {
     List<T> readAll();
     T create(T t);
     T update(I i, T t);
-    void delete(I i);
+    boolean delete(I i); // false if there was nothing to delete
     boolean validatePrimaryKey(I i);
 
 }
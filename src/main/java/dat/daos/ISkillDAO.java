@@ -1,7 +1,13 @@
 package dat.daos;
 
+import dat.dtos.PageDTO;
 import dat.dtos.SkillDTO;
+import dat.utils.Cursor;
+
+import java.util.List;
 
 public interface ISkillDAO extends IDAO<SkillDTO, Integer>
 {
+    PageDTO<SkillDTO> readPage(Cursor after, int limit);
+    List<SkillDTO> suggest(String query, int limit); // prefix match on name and description words
 }
@@ -2,24 +2,79 @@ package dat.daos.impl;
 
 import dat.daos.ICandidateDAO;
 import dat.dtos.CandidateDTO;
+import dat.dtos.CategoryMaskCheckDTO;
+import dat.dtos.LinkResultDTO;
+import dat.dtos.MatchDTO;
+import dat.dtos.PageDTO;
+import dat.dtos.SimilarCandidateDTO;
 import dat.dtos.SkillDTO;
 import dat.entities.Candidate;
 import dat.entities.CandidateSkill;
 import dat.entities.Skill;
 import dat.entities.SkillCategory;
+import dat.index.CandidateMatcher;
+import dat.index.CandidateSkillIndex;
+import dat.index.MatchQuery;
+import dat.index.SimilarityIndex;
+import dat.metrics.SqlMetrics;
+import dat.utils.Cursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import jakarta.persistence.TypedQuery;
+import jakarta.persistence.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 
-import java.util.List;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class CandidateDAO implements ICandidateDAO {
 
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final int ID_CHUNK_SIZE = 1000; // ids per IN list, well below PostgreSQL's bind limit
+
+    // Set-based link maintenance (assignSkills). The (candidate, skill) pairs travel as two parallel int
+    // arrays, so each statement is a single round trip whatever the number of links.
+    private static final String INSERT_LINKS =
+            "INSERT INTO candidateskill (id, candidate_id, skill_id) " +
+                    "SELECT l.id, l.candidate_id, l.skill_id " +
+                    "FROM unnest(?::int[], ?::int[], ?::int[]) AS l(candidate_id, skill_id, id) " +
+                    "ON CONFLICT ON CONSTRAINT uk_candidate_skill DO NOTHING " +
+                    "RETURNING candidate_id, skill_id";
+    // candidate_skill_seq steps by the allocation size and each value starts a block of ids, as Hibernate's
+    // pooled-lo optimizer reads it. A nextval per row would use one id of each block and throw the rest away.
+    private static final String RESERVE_LINK_IDS = "SELECT nextval('candidate_skill_seq') FROM generate_series(1, ?)";
+    private static final int LINK_ID_BLOCK = 50; // allocationSize of CandidateSkill.id
+    private static final String DELETE_OTHER_LINKS =
+            "DELETE FROM candidateskill cs WHERE cs.candidate_id = ANY(?::int[]) " +
+                    "AND NOT EXISTS (SELECT 1 FROM unnest(?::int[], ?::int[]) AS l(candidate_id, skill_id) " +
+                    "WHERE l.candidate_id = cs.candidate_id AND l.skill_id = cs.skill_id) " +
+                    "RETURNING candidate_id, skill_id";
+
+    // Read-side projection: one row per candidate x skill, mapped straight to DTOs without
+    // hydrating entities (see toDTOs). Append WHERE / ORDER BY.
+    private static final String CANDIDATE_ROWS =
+            "SELECT c.id, c.name, c.phone, c.education, s.id, s.name, s.category, s.description " +
+                    "FROM Candidate c " +
+                    "LEFT JOIN c.candidateSkills cs " +
+                    "LEFT JOIN cs.skill s ";
+
     private static CandidateDAO instance;
     private final EntityManagerFactory emf;
+    private final CandidateSkillIndex index = CandidateSkillIndex.getInstance();
 
-    private CandidateDAO(EntityManagerFactory emf) { this.emf = emf; }
+    // The skill index is built at startup (here or in SkillDAO) and kept current by the write methods below
+    private CandidateDAO(EntityManagerFactory emf) {
+        this.emf = emf;
+        index.ensureBuilt(emf);
+    }
 
     public static CandidateDAO getInstance(EntityManagerFactory emf) {
         if (instance == null) instance = new CandidateDAO(emf);
@@ -35,23 +90,19 @@ public class CandidateDAO implements ICandidateDAO {
             c.setName(dto.getName());
             c.setPhone(dto.getPhone());
             c.setEducation(dto.getEducation());
-            em.persist(c);
 
             // Optional: attach incoming skills by id (if provided)
             if (dto.getSkills() != null && !dto.getSkills().isEmpty()) {
                 for (SkillDTO sd : dto.getSkills()) {
                     if (sd.getId() == null) continue;
                     Skill s = em.find(Skill.class, sd.getId());
-                    if (s != null) {
-                        CandidateSkill cs = new CandidateSkill(c, s);
-                        c.getCandidateSkills().add(cs);
-                        s.getCandidateSkills().add(cs);
-                        em.persist(cs);
-                    }
+                    if (s != null) c.addSkill(s); // sets the category bit
                 }
             }
+            em.persist(c); // cascades to the join rows; category_mask is complete before the INSERT is queued
 
             em.getTransaction().commit();
+            index.refresh(emf, List.of(c.getId()));
             return CandidateDTO.fromEntity(c);
         } finally {
             em.close();
@@ -60,12 +111,13 @@ public class CandidateDAO implements ICandidateDAO {
 
     @Override
     public CandidateDTO read(Integer id) {
-        EntityManager em = emf.createEntityManager();
+        EntityManager em = EntityManagers.readOnly(emf);
         try {
-            Candidate c = em.find(Candidate.class, id);
-            if (c == null) return null;
-            // force load skills if LAZY: c.getCandidateSkills().size();
-            return CandidateDTO.fromEntity(c);
+            List<Object[]> rows = em.createQuery(CANDIDATE_ROWS + "WHERE c.id = :id", Object[].class)
+                    .setParameter("id", id)
+                    .getResultList();
+            List<CandidateDTO> found = toDTOs(rows);
+            return found.isEmpty() ? null : found.get(0);
         } finally {
             em.close();
         }
@@ -73,10 +125,9 @@ public class CandidateDAO implements ICandidateDAO {
 
     @Override
     public List<CandidateDTO> readAll() {
-        EntityManager em = emf.createEntityManager();
+        EntityManager em = EntityManagers.readOnly(emf);
         try {
-            TypedQuery<Candidate> q = em.createQuery("SELECT c FROM Candidate c ORDER BY c.name", Candidate.class);
-            return q.getResultList().stream().map(CandidateDTO::fromEntity).collect(Collectors.toList());
+            return toDTOs(em.createQuery(CANDIDATE_ROWS + "ORDER BY c.name, c.id, cs.id", Object[].class).getResultList());
         } finally {
             em.close();
         }
@@ -87,7 +138,7 @@ public class CandidateDAO implements ICandidateDAO {
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
-            Candidate c = em.find(Candidate.class, id);
+            Candidate c = em.find(Candidate.class, id, withSkills(em));
             if (c == null) { em.getTransaction().rollback(); return null; }
             if (dto.getName() != null) c.setName(dto.getName());
             if (dto.getPhone() != null) c.setPhone(dto.getPhone());
@@ -99,15 +150,24 @@ public class CandidateDAO implements ICandidateDAO {
         }
     }
 
+    // Two bulk statements, join rows first: nothing is loaded, however many skills the candidate has
     @Override
-    public void delete(Integer id) {
+    public boolean delete(Integer id) {
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
-            Candidate c = em.find(Candidate.class, id);
-            if (c != null) em.remove(c); // orphanRemoval=true removes CandidateSkill rows
+            em.createQuery("DELETE FROM CandidateSkill cs WHERE cs.candidate.id = :id")
+                    .setParameter("id", id)
+                    .executeUpdate();
+            int deleted = em.createQuery("DELETE FROM Candidate c WHERE c.id = :id")
+                    .setParameter("id", id)
+                    .executeUpdate();
+            if (deleted == 0) { em.getTransaction().rollback(); return false; }
             em.getTransaction().commit();
+            index.refresh(emf, List.of(id));
+            return true;
         } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
             em.close();
         }
     }
@@ -128,7 +188,7 @@ public class CandidateDAO implements ICandidateDAO {
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
-            Candidate c = em.find(Candidate.class, candidateId);
+            Candidate c = em.find(Candidate.class, candidateId, withSkills(em));
             Skill s = em.find(Skill.class, skillId);
             if (c == null || s == null) { em.getTransaction().rollback(); return null; }
 
@@ -139,57 +199,451 @@ public class CandidateDAO implements ICandidateDAO {
                 c.getCandidateSkills().add(cs);
                 s.getCandidateSkills().add(cs);
                 em.persist(cs);
+                CategoryMasks.add(em, candidateId, s.getCategory());
             }
 
             em.getTransaction().commit();
+            index.refresh(emf, List.of(candidateId));
             return CandidateDTO.fromEntity(c);
         } finally {
             em.close();
         }
     }
 
+    // One bulk delete on the uk_candidate_skill key; nothing is loaded. False when there was no such link.
     @Override
-    public CandidateDTO unlinkSkill(Integer candidateId, Integer skillId) {
+    public boolean unlinkSkill(Integer candidateId, Integer skillId) {
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
-            Candidate c = em.find(Candidate.class, candidateId);
-            if (c == null) { em.getTransaction().rollback(); return null; }
+            int deleted = em.createQuery(
+                            "DELETE FROM CandidateSkill cs WHERE cs.candidate.id = :candidateId AND cs.skill.id = :skillId")
+                    .setParameter("candidateId", candidateId)
+                    .setParameter("skillId", skillId)
+                    .executeUpdate();
+            if (deleted > 0) CategoryMasks.recompute(em, candidateId);
+            em.getTransaction().commit();
+            if (deleted > 0) index.refresh(emf, List.of(candidateId));
+            return deleted > 0;
+        } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    // Adds the given skills to each candidate, or with replace makes them the candidate's exact skill set
+    // (an empty list removes all). One transaction and at most six statements for any number of candidates:
+    // two existence checks, one delete (replace only), one id reservation, one INSERT .. ON CONFLICT DO NOTHING
+    // and the category_mask update.
+    // Unknown candidate or skill ids abort the whole call without changes.
+    @Override
+    public LinkResultDTO assignSkills(Map<Integer, ? extends Collection<Integer>> skillsByCandidate, boolean replace) {
+        List<Integer> candidateIds = new ArrayList<>(skillsByCandidate.keySet());
+        List<Integer> pairCandidates = new ArrayList<>();
+        List<Integer> pairSkills = new ArrayList<>();
+        Set<Integer> skillIds = new TreeSet<>();
+        skillsByCandidate.forEach((candidateId, skills) -> new LinkedHashSet<>(skills).forEach(skillId -> {
+            pairCandidates.add(candidateId);
+            pairSkills.add(skillId);
+            skillIds.add(skillId);
+        }));
 
-            // remove join rows
-            c.getCandidateSkills().removeIf(cs -> {
-                if (cs.getSkill().getId().equals(skillId)) {
-                    cs.getSkill().getCandidateSkills().remove(cs);
-                    em.remove(em.contains(cs) ? cs : em.merge(cs));
-                    return true;
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            LinkChanges changes = em.unwrap(Session.class).doReturningWork(connection -> {
+                List<Integer> unknownCandidates = missingIds(connection, "candidate", candidateIds);
+                List<Integer> unknownSkills = missingIds(connection, "skill", skillIds);
+                if (!unknownCandidates.isEmpty() || !unknownSkills.isEmpty())
+                    return new LinkChanges(List.of(), List.of(), unknownCandidates, unknownSkills);
+
+                Array candidates = connection.createArrayOf("integer", pairCandidates.toArray());
+                Array skills = connection.createArrayOf("integer", pairSkills.toArray());
+                List<int[]> unlinked = List.of();
+                if (replace) {
+                    try (PreparedStatement delete = connection.prepareStatement(DELETE_OTHER_LINKS)) {
+                        delete.setArray(1, connection.createArrayOf("integer", candidateIds.toArray()));
+                        delete.setArray(2, candidates);
+                        delete.setArray(3, skills);
+                        unlinked = pairs(SqlMetrics.time(DELETE_OTHER_LINKS, delete::executeQuery));
+                    }
+                }
+                List<int[]> linked = List.of();
+                if (!pairCandidates.isEmpty()) {
+                    try (PreparedStatement insert = connection.prepareStatement(INSERT_LINKS)) {
+                        insert.setArray(1, candidates);
+                        insert.setArray(2, skills);
+                        Integer[] ids = reserveLinkIds(connection, pairCandidates.size());
+                        insert.setArray(3, connection.createArrayOf("integer", ids));
+                        linked = pairs(SqlMetrics.time(INSERT_LINKS, insert::executeQuery));
+                    }
+                }
+                // Replace may have removed categories, so recompute; adding only sets bits
+                String masksSql = replace ? CategoryMasks.RECOMPUTE_IDS : CategoryMasks.ADD_PAIRS;
+                try (PreparedStatement masks = connection.prepareStatement(masksSql)) {
+                    if (replace) {
+                        masks.setArray(1, connection.createArrayOf("integer", candidateIds.toArray()));
+                    } else {
+                        masks.setArray(1, candidates);
+                        masks.setArray(2, skills);
+                    }
+                    SqlMetrics.time(masksSql, masks::executeUpdate);
                 }
-                return false;
+                return new LinkChanges(linked, unlinked, List.of(), List.of());
             });
 
+            if (!changes.unknownCandidates().isEmpty() || !changes.unknownSkills().isEmpty()) {
+                em.getTransaction().rollback();
+            } else {
+                em.getTransaction().commit();
+                index.refresh(emf, candidateIds);
+            }
+            return new LinkResultDTO(changes.linked().size(), changes.unlinked().size(),
+                    changes.unknownCandidates(), changes.unknownSkills());
+        } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    private record LinkChanges(List<int[]> linked, List<int[]> unlinked,
+                               List<Integer> unknownCandidates, List<Integer> unknownSkills) { }
+
+    // n ids for new candidateskill rows, taken from ceil(n / LINK_ID_BLOCK) blocks of the sequence.
+    // Ids of pairs that turn out to exist already stay unused, like the rest of a Hibernate block.
+    private static Integer[] reserveLinkIds(Connection connection, int n) throws SQLException {
+        Integer[] ids = new Integer[n];
+        try (PreparedStatement select = connection.prepareStatement(RESERVE_LINK_IDS)) {
+            select.setInt(1, (n + LINK_ID_BLOCK - 1) / LINK_ID_BLOCK);
+            try (ResultSet rs = SqlMetrics.time(RESERVE_LINK_IDS, select::executeQuery)) {
+                int i = 0;
+                while (rs.next()) {
+                    int blockStart = rs.getInt(1);
+                    for (int j = 0; j < LINK_ID_BLOCK && i < n; j++) ids[i++] = blockStart + j;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<Integer> missingIds(Connection connection, String table, Collection<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) return List.of();
+        Set<Integer> missing = new TreeSet<>(ids);
+        String sql = "SELECT id FROM " + table + " WHERE id = ANY(?::int[])";
+        try (PreparedStatement select = connection.prepareStatement(sql)) {
+            select.setArray(1, connection.createArrayOf("integer", ids.toArray()));
+            try (ResultSet rs = SqlMetrics.time(sql, select::executeQuery)) {
+                while (rs.next()) missing.remove(rs.getInt(1));
+            }
+        }
+        return new ArrayList<>(missing);
+    }
+
+    // (candidate_id, skill_id) rows from a RETURNING clause
+    private static List<int[]> pairs(ResultSet rs) throws SQLException {
+        try (rs) {
+            List<int[]> result = new ArrayList<>();
+            while (rs.next()) result.add(new int[]{rs.getInt(1), rs.getInt(2)});
+            return result;
+        }
+    }
+
+    // Counts candidates whose category_mask disagrees with their links and, with repair, rewrites them
+    @Override
+    public CategoryMaskCheckDTO checkCategoryMasks(boolean repair) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            if (!repair) return new CategoryMaskCheckDTO(CategoryMasks.countStale(em), 0);
+            em.getTransaction().begin();
+            int repaired = CategoryMasks.repairStale(em);
             em.getTransaction().commit();
-            return CandidateDTO.fromEntity(c);
+            return new CategoryMaskCheckDTO(repaired, repaired);
         } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
             em.close();
         }
     }
 
+    // Answered by the in-memory skill index; only the matching rows are read from the database
+    @Override
     public List<CandidateDTO> readAllByCategory(SkillCategory category){
+        return readAllByCategories(EnumSet.of(category));
+    }
+
+    // Candidates with a skill in any of the categories
+    @Override
+    public List<CandidateDTO> readAllByCategories(Set<SkillCategory> categories) {
+        return readByIds(withAnyCategory(categories).stream().boxed().toList());
+    }
+
+    // skillIds matched with AND (matchAll) or OR, optionally narrowed to categories (any of), all in memory
+    @Override
+    public List<CandidateDTO> readAllBySkills(Collection<Integer> skillIds, boolean matchAll, Set<SkillCategory> categories) {
+        BitSet ids = matchAll ? index.withAllSkills(skillIds) : index.withAnySkill(skillIds);
+        if (categories != null && !categories.isEmpty()) ids.and(withAnyCategory(categories));
+        return readByIds(ids.stream().boxed().toList());
+    }
+
+    private BitSet withAnyCategory(Set<SkillCategory> categories) {
+        BitSet ids = new BitSet();
+        for (SkillCategory category : categories) ids.or(index.withCategory(category));
+        return ids;
+    }
+
+    // Ranking runs on the index snapshot; only the winners are loaded from the database
+    @Override
+    public List<MatchDTO> match(MatchQuery query) {
+        List<CandidateMatcher.Match> top = CandidateMatcher.topK(index.snapshot(), query);
+        Map<Integer, CandidateDTO> byId = readByIds(top.stream().map(CandidateMatcher.Match::candidateId).toList())
+                .stream()
+                .collect(Collectors.toMap(CandidateDTO::getId, dto -> dto));
+        return top.stream()
+                .filter(m -> byId.containsKey(m.candidateId())) // deleted since the snapshot
+                .map(m -> new MatchDTO(byId.get(m.candidateId()), m.score(), m.requiredMatched(), m.optionalMatched()))
+                .toList();
+    }
+
+    // Neighbours come from the MinHash/LSH index in memory; only they are loaded from the database
+    @Override
+    public List<SimilarCandidateDTO> readSimilar(Integer id, int k) {
+        List<SimilarityIndex.Similar> similar = index.similarTo(id, k);
+        if (similar == null) return null;
+        Map<Integer, CandidateDTO> byId = readByIds(similar.stream().map(SimilarityIndex.Similar::candidateId).toList())
+                .stream()
+                .collect(Collectors.toMap(CandidateDTO::getId, dto -> dto));
+        return similar.stream()
+                .filter(s -> byId.containsKey(s.candidateId()))
+                .map(s -> new SimilarCandidateDTO(byId.get(s.candidateId()), s.similarity()))
+                .toList();
+    }
+
+    // Name order, like readAll. Ids go to the database in chunks to stay under the bind parameter limit.
+    @Override
+    public List<CandidateDTO> readByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) return List.of();
+        EntityManager em = EntityManagers.readOnly(emf);
+        try {
+            List<Integer> idList = new ArrayList<>(ids);
+            List<CandidateDTO> result = new ArrayList<>(idList.size());
+            for (int from = 0; from < idList.size(); from += ID_CHUNK_SIZE) {
+                List<Integer> chunk = idList.subList(from, Math.min(from + ID_CHUNK_SIZE, idList.size()));
+                result.addAll(toDTOs(em.createQuery(CANDIDATE_ROWS + "WHERE c.id IN :ids ORDER BY c.id, cs.id", Object[].class)
+                        .setParameter("ids", chunk)
+                        .getResultList()));
+            }
+            result.sort(Comparator.comparing(CandidateDTO::getName).thenComparing(CandidateDTO::getId));
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public PageDTO<CandidateDTO> readPage(Cursor after, int limit) {
+        return readPage(null, after, limit);
+    }
+
+    @Override
+    public PageDTO<CandidateDTO> readPageByCategories(Set<SkillCategory> categories, Cursor after, int limit) {
+        return readPage(categories, after, limit);
+    }
+
+    // Keyset paging on (name, id): seeking past the cursor costs the same on page 1000 as on page 1.
+    // Ids are limited first and the rows loaded afterwards, because a limit on the joined
+    // candidate x skill rows would cut candidates in half. Categories are a predicate on
+    // candidate.category_mask, so the id query never leaves the candidate table (partial indexes in V2).
+    private PageDTO<CandidateDTO> readPage(Set<SkillCategory> categories, Cursor after, int limit) {
+        EntityManager em = EntityManagers.readOnly(emf);
+        try {
+            List<String> where = new ArrayList<>();
+            if (categories != null && !categories.isEmpty())
+                where.add(CategoryMasks.anyOf("c", categories));
+            if (after != null)
+                where.add("(c.name > :name OR (c.name = :name AND c.id > :id))");
+
+            Query idQuery = em.createNativeQuery(
+                    "SELECT c.id FROM candidate c " +
+                            (where.isEmpty() ? "" : "WHERE " + String.join(" AND ", where) + " ") +
+                            "ORDER BY c.name, c.id");
+            if (after != null) {
+                idQuery.setParameter("name", after.name());
+                idQuery.setParameter("id", after.id());
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (Object id : idQuery.setMaxResults(limit + 1).getResultList()) ids.add(((Number) id).intValue());
+            boolean hasMore = ids.size() > limit;
+            if (hasMore) ids = ids.subList(0, limit);
+            if (ids.isEmpty()) return new PageDTO<>(List.of(), null);
+
+            List<CandidateDTO> items = toDTOs(em.createQuery(
+                            CANDIDATE_ROWS + "WHERE c.id IN :ids ORDER BY c.name, c.id, cs.id", Object[].class)
+                    .setParameter("ids", ids)
+                    .getResultList());
+
+            String next = null;
+            if (hasMore && !items.isEmpty()) {
+                CandidateDTO last = items.get(items.size() - 1);
+                next = new Cursor(last.getName(), last.getId()).encode();
+            }
+            return new PageDTO<>(items, next);
+        } finally {
+            em.close();
+        }
+    }
+
+    // Imports one chunk in one transaction; inserts go out as JDBC batches. Rows with unknown skills or a
+    // phone that is already taken are rejected up front. If the commit still fails (e.g. a concurrent
+    // insert of the same phone), the chunk is retried one row per transaction to isolate the bad rows.
+    @Override
+    public List<String> importBatch(List<CandidateDTO> rows, Collection<SkillDTO> skills) {
+        List<String> errors = new ArrayList<>(Collections.nCopies(rows.size(), null));
         EntityManager em = emf.createEntityManager();
         try {
-            TypedQuery<Candidate> q = em.createQuery(
-                    "SELECT DISTINCT c " +
-                            "FROM Candidate c " +
-                            "JOIN c.candidateSkills cs " +
-                            "JOIN cs.skill s " +
-                            "WHERE s.category = :cat " +
-                            "ORDER BY c.name", Candidate.class);
-            q.setParameter("cat", category);
-            return q.getResultList()
-                    .stream()
-                    .map(CandidateDTO::fromEntity)
-                    .collect(Collectors.toList());
+            Map<Integer, SkillCategory> skillCategories = new HashMap<>();
+            Map<String, Integer> skillIdsByName = new HashMap<>();
+            for (SkillDTO skill : skills) {
+                skillCategories.put(skill.getId(), skill.getCategory());
+                if (skill.getName() != null) skillIdsByName.put(skill.getName().trim().toLowerCase(Locale.ROOT), skill.getId());
+            }
+            Set<Integer> skillIds = skillCategories.keySet();
+            Set<String> phones = new HashSet<>(em.createQuery(
+                            "SELECT c.phone FROM Candidate c WHERE c.phone IN :phones", String.class)
+                    .setParameter("phones", rows.stream().map(CandidateDTO::getPhone).collect(Collectors.toSet()))
+                    .getResultList());
+
+            Map<Integer, Set<Integer>> accepted = new LinkedHashMap<>(); // row index -> skill ids
+            for (int i = 0; i < rows.size(); i++) {
+                CandidateDTO dto = rows.get(i);
+                try {
+                    Set<Integer> resolved = resolveSkills(dto, skillIds, skillIdsByName);
+                    if (!phones.add(dto.getPhone()))
+                        throw new IllegalArgumentException("Phone " + dto.getPhone() + " already exists");
+                    accepted.put(i, resolved);
+                } catch (IllegalArgumentException e) {
+                    errors.set(i, e.getMessage());
+                }
+            }
+            if (accepted.isEmpty()) return errors;
+
+            try {
+                em.getTransaction().begin();
+                List<Candidate> created = new ArrayList<>();
+                accepted.forEach((i, ids) -> created.add(persistImported(em, rows.get(i), ids, skillCategories)));
+                em.getTransaction().commit();
+                index.refresh(emf, created.stream().map(Candidate::getId).toList());
+            } catch (RuntimeException e) {
+                if (em.getTransaction().isActive()) em.getTransaction().rollback();
+                em.clear();
+                accepted.forEach((i, ids) -> {
+                    try {
+                        em.getTransaction().begin();
+                        Candidate c = persistImported(em, rows.get(i), ids, skillCategories);
+                        em.getTransaction().commit();
+                        index.refresh(emf, List.of(c.getId()));
+                    } catch (RuntimeException ex) {
+                        if (em.getTransaction().isActive()) em.getTransaction().rollback();
+                        errors.set(i, "Could not be saved: " + rootCause(ex).getMessage());
+                    } finally {
+                        em.clear();
+                    }
+                });
+            }
+            return errors;
         } finally {
             em.close();
         }
     }
+
+    private static Set<Integer> resolveSkills(CandidateDTO dto, Set<Integer> skillIds, Map<String, Integer> skillIdsByName) {
+        Set<Integer> resolved = new LinkedHashSet<>();
+        if (dto.getSkills() == null) return resolved;
+        for (SkillDTO sd : dto.getSkills()) {
+            Integer id = sd.getId() != null
+                    ? (skillIds.contains(sd.getId()) ? sd.getId() : null)
+                    : sd.getName() == null ? null : skillIdsByName.get(sd.getName().trim().toLowerCase(Locale.ROOT));
+            if (id == null)
+                throw new IllegalArgumentException("Unknown skill " + (sd.getId() != null ? sd.getId() : sd.getName()));
+            resolved.add(id);
+        }
+        return resolved;
+    }
+
+    private static Candidate persistImported(EntityManager em, CandidateDTO dto, Set<Integer> skillIds,
+                                             Map<Integer, SkillCategory> skillCategories) {
+        Candidate c = new Candidate();
+        c.setName(dto.getName());
+        c.setPhone(dto.getPhone());
+        c.setEducation(dto.getEducation());
+        Set<SkillCategory> categories = EnumSet.noneOf(SkillCategory.class);
+        for (Integer skillId : skillIds) {
+            // getReference: the FK is all we need, no select per skill
+            c.getCandidateSkills().add(new CandidateSkill(c, em.getReference(Skill.class, skillId)));
+            categories.add(skillCategories.get(skillId));
+        }
+        c.setCategoryMask(CategoryMasks.maskOf(categories));
+        em.persist(c); // cascades to the join rows
+        return c;
+    }
+
+    private static Throwable rootCause(Throwable t) {
+        while (t.getCause() != null && t.getCause() != t) t = t.getCause();
+        return t;
+    }
+
+    // Reads a flat candidate x skill projection through a forward-only cursor and hands out one
+    // CandidateDTO at a time, so memory stays constant however many candidates there are: the driver
+    // holds EXPORT_FETCH_SIZE rows, and a scalar projection puts nothing in the persistence context.
+    @Override
+    public void exportAll(Consumer<CandidateDTO> sink) {
+        EntityManager em = EntityManagers.readOnly(emf);
+        try {
+            Session session = em.unwrap(Session.class);
+            em.getTransaction().begin(); // pgjdbc only streams with a fetch size inside a transaction
+            try (ScrollableResults<Object[]> rows = session.createQuery(
+                            CANDIDATE_ROWS + "ORDER BY c.id, cs.id", Object[].class)
+                    .setFetchSize(EXPORT_FETCH_SIZE)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                CandidateDTO current = null;
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    Integer id = (Integer) row[0];
+                    if (current == null || !current.getId().equals(id)) {
+                        if (current != null) sink.accept(current);
+                        current = candidateFrom(row);
+                    }
+                    if (row[4] != null) current.getSkills().add(skillFrom(row));
+                }
+                if (current != null) sink.accept(current);
+            }
+            em.getTransaction().commit();
+        } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
+            em.close();
+        }
+    }
+
+    // Folds CANDIDATE_ROWS results into one DTO per candidate, keeping the query's order
+    private static List<CandidateDTO> toDTOs(List<Object[]> rows) {
+        Map<Integer, CandidateDTO> byId = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            CandidateDTO dto = byId.computeIfAbsent((Integer) row[0], id -> candidateFrom(row));
+            if (row[4] != null) dto.getSkills().add(skillFrom(row));
+        }
+        return new ArrayList<>(byId.values());
+    }
+
+    private static CandidateDTO candidateFrom(Object[] row) {
+        return new CandidateDTO((Integer) row[0], (String) row[1], (String) row[2], (String) row[3], new ArrayList<>());
+    }
+
+    private static SkillDTO skillFrom(Object[] row) {
+        return new SkillDTO((Integer) row[4], (String) row[5], (SkillCategory) row[6], (String) row[7]);
+    }
+
+    // Loads candidateSkills -> skill together with the candidate, so CandidateDTO.fromEntity
+    // does not fire one lazy select per candidate and per skill
+    private static Map<String, Object> withSkills(EntityManager em) {
+        return Map.of(FETCH_GRAPH, em.getEntityGraph(Candidate.WITH_SKILLS));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package dat.daos.impl;
+
+import dat.daos.ICandidateDAO;
+import dat.dtos.CategoryMaskCheckDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purpose: Periodically repairs candidate.category_mask (see CategoryMasks). The DAOs keep it current;
+ * this catches what they cannot, such as a link removed concurrently with a recompute, or rows changed
+ * by hand in the database. Any repair is logged, so a non-zero count points at a write path to fix.
+ * Interval from AppConfig.categoryMaskCheckMinutes; /api/admin/category-masks runs it on demand.
+ */
+public class CategoryMaskJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryMaskJob.class);
+
+    private static ScheduledExecutorService scheduler;
+
+    public static synchronized void start(ICandidateDAO dao, long intervalMinutes) {
+        if (scheduler != null || intervalMinutes <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "category-mask-job");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> run(dao), intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        logger.info("Checking candidate category masks every {} min", intervalMinutes);
+    }
+
+    private static void run(ICandidateDAO dao) {
+        try {
+            CategoryMaskCheckDTO result = dao.checkCategoryMasks(true);
+            if (result.getRepaired() > 0)
+                logger.warn("Repaired {} stale candidate category masks", result.getRepaired());
+        } catch (RuntimeException e) {
+            logger.error("Category mask check failed", e); // keep the schedule alive
+        }
+    }
+}
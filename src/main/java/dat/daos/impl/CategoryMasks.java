@@ -0,0 +1,99 @@
+package dat.daos.impl;
+
+import dat.entities.SkillCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Purpose: SQL for candidate.category_mask, the OR of 1 << ordinal over the categories of a candidate's
+ * skills. It lets category filters run on the candidate table alone (see V2__candidate_category_mask.sql).
+ * Added links only set bits, which is safe under concurrent writers. Removed links and changed skill
+ * categories recompute the mask from the join table. The job in CategoryMaskJob repairs anything that
+ * slipped through, e.g. rows written outside the DAOs.
+ */
+final class CategoryMasks {
+
+    // CASE s.category WHEN 'PROG_LANG' THEN 1 WHEN 'DB' THEN 2 ... END
+    private static final String BIT_OF_SKILL = "CASE s.category " +
+            Arrays.stream(SkillCategory.values())
+                    .map(c -> "WHEN '" + c.name() + "' THEN " + c.bit())
+                    .collect(Collectors.joining(" ")) + " END";
+
+    // The mask candidate c should have according to its links
+    private static final String EXPECTED =
+            "coalesce((SELECT bit_or(" + BIT_OF_SKILL + ") FROM candidateskill cs JOIN skill s ON s.id = cs.skill_id " +
+                    "WHERE cs.candidate_id = c.id %s), 0)";
+
+    static final String RECOMPUTE_IDS =
+            "UPDATE candidate c SET category_mask = " + EXPECTED.formatted("") + " WHERE c.id = ANY(?::int[])";
+    static final String ADD_PAIRS =
+            "UPDATE candidate c SET category_mask = c.category_mask | m.mask " +
+                    "FROM (SELECT l.candidate_id, bit_or(" + BIT_OF_SKILL + ") AS mask " +
+                    "FROM unnest(?::int[], ?::int[]) AS l(candidate_id, skill_id) JOIN skill s ON s.id = l.skill_id " +
+                    "GROUP BY l.candidate_id) m WHERE m.candidate_id = c.id";
+
+    private static final String STALE = "c.category_mask <> " + EXPECTED.formatted("");
+
+    private CategoryMasks() { }
+
+    static int maskOf(Collection<SkillCategory> categories) {
+        int mask = 0;
+        for (SkillCategory category : categories) mask |= category.bit();
+        return mask;
+    }
+
+    // Candidates holding any of the categories. One term per category with a literal bit, so that a
+    // single category matches the partial index ix_candidate_cat_<category> exactly.
+    static String anyOf(String alias, Set<SkillCategory> categories) {
+        return categories.stream()
+                .map(c -> "(" + alias + ".category_mask & " + c.bit() + ") <> 0")
+                .collect(Collectors.joining(" OR ", "(", ")"));
+    }
+
+    static void add(EntityManager em, int candidateId, SkillCategory category) {
+        update(em, "UPDATE candidate SET category_mask = category_mask | :bit WHERE id = :id")
+                .setParameter("bit", category.bit())
+                .setParameter("id", candidateId)
+                .executeUpdate();
+    }
+
+    static void recompute(EntityManager em, int candidateId) {
+        em.flush();
+        update(em, "UPDATE candidate c SET category_mask = " + EXPECTED.formatted("") + " WHERE c.id = :id")
+                .setParameter("id", candidateId)
+                .executeUpdate();
+    }
+
+    // Every holder of the skill, after its category changed or, with withoutSkill, before it is deleted
+    static void recomputeHolders(EntityManager em, int skillId, boolean withoutSkill) {
+        em.flush();
+        update(em, "UPDATE candidate c SET category_mask = " +
+                EXPECTED.formatted(withoutSkill ? "AND cs.skill_id <> :skillId" : "") +
+                " WHERE c.id IN (SELECT h.candidate_id FROM candidateskill h WHERE h.skill_id = :skillId)")
+                .setParameter("skillId", skillId)
+                .executeUpdate();
+    }
+
+    static long countStale(EntityManager em) {
+        return ((Number) em.createNativeQuery("SELECT count(*) FROM candidate c WHERE " + STALE)
+                .getSingleResult()).longValue();
+    }
+
+    static int repairStale(EntityManager em) {
+        return update(em, "UPDATE candidate c SET category_mask = " + EXPECTED.formatted("") + " WHERE " + STALE)
+                .executeUpdate();
+    }
+
+    // Only the candidate table is declared as touched; without it Hibernate would drop every cache region
+    private static Query update(EntityManager em, String sql) {
+        Query query = em.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace("candidate");
+        return query;
+    }
+}
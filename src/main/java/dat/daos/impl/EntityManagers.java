@@ -0,0 +1,23 @@
+package dat.daos.impl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+/**
+ * Purpose: EntityManagers for the read paths. Loaded entities get no dirty-checking snapshot and
+ * the session never flushes, so a read costs no persistence-context bookkeeping.
+ */
+final class EntityManagers {
+
+    private EntityManagers() { }
+
+    static EntityManager readOnly(EntityManagerFactory emf) {
+        EntityManager em = emf.createEntityManager();
+        Session session = em.unwrap(Session.class);
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return em;
+    }
+}
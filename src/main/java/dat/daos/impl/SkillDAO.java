@@ -2,21 +2,35 @@ package dat.daos.impl;
 
 import dat.config.HibernateConfig;
 import dat.daos.ISkillDAO;
+import dat.dtos.PageDTO;
 import dat.dtos.SkillDTO;
 import dat.entities.Skill;
+import dat.entities.SkillCategory;
+import dat.index.CandidateSkillIndex;
+import dat.index.SkillSuggestIndex;
+import dat.utils.Cursor;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.TypedQuery;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class SkillDAO implements ISkillDAO {
 
+    // Read-side projection straight into the DTO, no managed entities. Append WHERE / ORDER BY.
+    private static final String SKILL_DTO =
+            "SELECT new dat.dtos.SkillDTO(s.id, s.name, s.category, s.description) FROM Skill s ";
+
     private static SkillDAO instance;
     private final EntityManagerFactory emf;
+    private final CandidateSkillIndex index = CandidateSkillIndex.getInstance();
+    private final SkillSuggestIndex suggestIndex = new SkillSuggestIndex(index);
 
-    private SkillDAO(EntityManagerFactory emf) { this.emf = emf; }
+    private SkillDAO(EntityManagerFactory emf) {
+        this.emf = emf;
+        index.ensureBuilt(emf); // suggestions rank by holder count, which would read 0 before the first build
+        suggestIndex.rebuild(readAll());
+    }
 
     public static SkillDAO getInstance(EntityManagerFactory emf) {
         if (instance == null) instance = new SkillDAO(emf);
@@ -34,7 +48,10 @@ public class SkillDAO implements ISkillDAO {
             s.setDescription(dto.getDescription());
             em.persist(s);
             em.getTransaction().commit();
-            return SkillDTO.fromEntity(s);
+            index.putSkill(s.getId(), s.getCategory());
+            SkillDTO created = SkillDTO.fromEntity(s);
+            suggestIndex.put(created);
+            return created;
         } finally {
             em.close();
         }
@@ -42,9 +59,9 @@ public class SkillDAO implements ISkillDAO {
 
     @Override
     public SkillDTO read(Integer id) {
-        EntityManager em = emf.createEntityManager();
+        EntityManager em = EntityManagers.readOnly(emf);
         try {
-            Skill s = em.find(Skill.class, id);
+            Skill s = em.find(Skill.class, id); // entity lookup on purpose: served from the second-level cache
             if (s == null) return null;
             return SkillDTO.fromEntity(s);
         } finally {
@@ -54,10 +71,11 @@ public class SkillDAO implements ISkillDAO {
 
     @Override
     public List<SkillDTO> readAll() {
-        EntityManager em = emf.createEntityManager();
+        EntityManager em = EntityManagers.readOnly(emf);
         try {
-            TypedQuery<Skill> q = em.createQuery("SELECT s FROM Skill s ORDER BY s.name", Skill.class);
-            return q.getResultList().stream().map(SkillDTO::fromEntity).collect(Collectors.toList());
+            TypedQuery<SkillDTO> q = em.createQuery(SKILL_DTO + "ORDER BY s.name", SkillDTO.class);
+            cacheable(q);
+            return q.getResultList();
         } finally {
             em.close();
         }
@@ -70,25 +88,43 @@ public class SkillDAO implements ISkillDAO {
             em.getTransaction().begin();
             Skill s = em.find(Skill.class, id);
             if (s == null) { em.getTransaction().rollback(); return null; }
+            SkillCategory previous = s.getCategory();
             if (dto.getName() != null) s.setName(dto.getName());
             if (dto.getCategory() != null) s.setCategory(dto.getCategory());
             if (dto.getDescription() != null) s.setDescription(dto.getDescription());
+            if (s.getCategory() != previous) CategoryMasks.recomputeHolders(em, id, false);
             em.getTransaction().commit();
-            return SkillDTO.fromEntity(s);
+            index.putSkill(s.getId(), s.getCategory());
+            SkillDTO updated = SkillDTO.fromEntity(s);
+            suggestIndex.put(updated);
+            return updated;
         } finally {
             em.close();
         }
     }
 
+    // Join rows by foreign key, then the skill. A popular skill costs the same as an unused one: no
+    // CandidateSkill or Candidate is loaded. The bulk delete on Skill makes Hibernate invalidate the
+    // skill entity and query cache regions. The holders' category masks are recomputed without the skill first.
     @Override
-    public void delete(Integer id) {
+    public boolean delete(Integer id) {
         EntityManager em = emf.createEntityManager();
         try {
             em.getTransaction().begin();
-            Skill s = em.find(Skill.class, id);
-            if (s != null) em.remove(s); // cascades remove CandidateSkill via orphanRemoval=true
+            CategoryMasks.recomputeHolders(em, id, true);
+            em.createQuery("DELETE FROM CandidateSkill cs WHERE cs.skill.id = :id")
+                    .setParameter("id", id)
+                    .executeUpdate();
+            int deleted = em.createQuery("DELETE FROM Skill s WHERE s.id = :id")
+                    .setParameter("id", id)
+                    .executeUpdate();
+            if (deleted == 0) { em.getTransaction().rollback(); return false; }
             em.getTransaction().commit();
+            index.removeSkill(id);
+            suggestIndex.remove(id);
+            return true;
         } finally {
+            if (em.getTransaction().isActive()) em.getTransaction().rollback();
             em.close();
         }
     }
@@ -103,4 +139,46 @@ public class SkillDAO implements ISkillDAO {
             em.close();
         }
     }
-}
\ No newline at end of file
+
+    // Keyset paging on (name, id), so deep pages cost the same as the first one. skill.name is nullable:
+    // unnamed skills sort and compare as '' (first), since s.name > :name is never true for NULL.
+    @Override
+    public PageDTO<SkillDTO> readPage(Cursor after, int limit) {
+        EntityManager em = EntityManagers.readOnly(emf);
+        try {
+            TypedQuery<SkillDTO> q = em.createQuery(SKILL_DTO +
+                            (after == null ? "" : "WHERE coalesce(s.name, '') > :name " +
+                                    "OR (coalesce(s.name, '') = :name AND s.id > :id) ") +
+                            "ORDER BY coalesce(s.name, ''), s.id", SkillDTO.class);
+            if (after != null) {
+                q.setParameter("name", after.name() == null ? "" : after.name());
+                q.setParameter("id", after.id());
+            }
+            cacheable(q);
+            List<SkillDTO> items = q.setMaxResults(limit + 1).getResultList();
+
+            String next = null;
+            if (items.size() > limit) {
+                items = items.subList(0, limit);
+                SkillDTO last = items.get(limit - 1);
+                next = new Cursor(last.getName(), last.getId()).encode();
+            }
+            return new PageDTO<>(items, next);
+        } finally {
+            em.close();
+        }
+    }
+
+    // Served from memory, no database round trip per keystroke
+    @Override
+    public List<SkillDTO> suggest(String query, int limit) {
+        return suggestIndex.suggest(query, limit);
+    }
+
+    // The query cache keeps the projected values. Hibernate invalidates it whenever the skill
+    // table is written through create/update/delete.
+    private static void cacheable(TypedQuery<?> q) {
+        q.setHint("org.hibernate.cacheable", true);
+        q.setHint("org.hibernate.cacheRegion", Skill.QUERY_CACHE_REGION);
+    }
+}
@@ -0,0 +1,17 @@
+package dat.dtos;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO
+{
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long evictions;
+    private long elementsInMemory;
+}
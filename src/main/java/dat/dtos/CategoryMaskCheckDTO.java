@@ -0,0 +1,13 @@
+package dat.dtos;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryMaskCheckDTO
+{
+    private long stale;     // candidates whose category_mask did not match their skills
+    private long repaired;  // of those, rewritten by this run (0 for a check only)
+}
@@ -0,0 +1,31 @@
+package dat.dtos;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ImportResultDTO
+{
+    // Only the first errors are kept, so a file full of bad rows can't grow the response without bound
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addImported(int count)
+    {
+        imported += count;
+    }
+
+    public void addError(int line, String message)
+    {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new RowError(line, message));
+    }
+
+    public record RowError(int line, String message) {}
+}
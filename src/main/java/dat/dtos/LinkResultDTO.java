@@ -0,0 +1,30 @@
+package dat.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class LinkResultDTO
+{
+    private int linked;                        // new links inserted
+    private int unlinked;                      // links removed (replace mode)
+    private List<Integer> unknownCandidates;   // non-empty: nothing was changed
+    private List<Integer> unknownSkills;       // non-empty: nothing was changed
+
+    public LinkResultDTO(){}
+
+    public LinkResultDTO(int linked, int unlinked, List<Integer> unknownCandidates, List<Integer> unknownSkills)
+    {
+        this.linked = linked;
+        this.unlinked = unlinked;
+        this.unknownCandidates = unknownCandidates;
+        this.unknownSkills = unknownSkills;
+    }
+
+    public boolean isApplied()
+    {
+        return unknownCandidates.isEmpty() && unknownSkills.isEmpty();
+    }
+}
@@ -0,0 +1,23 @@
+package dat.dtos;
+
+import lombok.*;
+
+@Getter
+@Setter
+public class MatchDTO
+{
+    private CandidateDTO candidate;
+    private double score;
+    private int requiredMatched;
+    private int optionalMatched;
+
+    public MatchDTO(){}
+
+    public MatchDTO(CandidateDTO candidate, double score, int requiredMatched, int optionalMatched)
+    {
+        this.candidate = candidate;
+        this.score = score;
+        this.requiredMatched = requiredMatched;
+        this.optionalMatched = optionalMatched;
+    }
+}
@@ -0,0 +1,20 @@
+package dat.dtos;
+
+import dat.entities.SkillCategory;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class MatchRequestDTO
+{
+    private List<String> required;                // skill names or ids, a name wins over an equal id
+    private List<String> optional;                // same as required, count half of a required hit
+    private Map<SkillCategory, Double> weights;   // per category, 1.0 when missing
+    private Boolean requireAll;                   // only rank candidates holding every required skill
+    private Integer limit;                        // top-K, defaults to PageDTO.DEFAULT_LIMIT
+
+    public MatchRequestDTO(){}
+}
@@ -0,0 +1,24 @@
+package dat.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PageDTO<T>
+{
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private String next; // opaque cursor for the following page, null on the last page
+
+    public PageDTO(){}
+
+    public PageDTO(List<T> items, String next)
+    {
+        this.items = items;
+        this.next = next;
+    }
+}
@@ -0,0 +1,20 @@
+package dat.dtos;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PoolStatsDTO
+{
+    private int active;
+    private int idle;
+    private int pending;
+    private int total;
+    private int max;
+    private long acquireCount;
+    private double acquireAvgMs;
+    private double acquireMaxMs;
+    private long acquireTimeouts;
+}
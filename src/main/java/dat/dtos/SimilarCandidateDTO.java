@@ -0,0 +1,19 @@
+package dat.dtos;
+
+import lombok.*;
+
+@Getter
+@Setter
+public class SimilarCandidateDTO
+{
+    private CandidateDTO candidate;
+    private double similarity; // Jaccard similarity of the skill sets, 0..1
+
+    public SimilarCandidateDTO(){}
+
+    public SimilarCandidateDTO(CandidateDTO candidate, double similarity)
+    {
+        this.candidate = candidate;
+        this.similarity = similarity;
+    }
+}
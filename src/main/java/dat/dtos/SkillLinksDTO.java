@@ -0,0 +1,21 @@
+package dat.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class SkillLinksDTO
+{
+    private Integer candidateId;
+    private List<Integer> skillIds;
+
+    public SkillLinksDTO(){}
+
+    public SkillLinksDTO(Integer candidateId, List<Integer> skillIds)
+    {
+        this.candidateId = candidateId;
+        this.skillIds = skillIds;
+    }
+}
@@ -9,10 +9,18 @@ import java.util.List;
 @Getter
 @Setter
 @NoArgsConstructor
+@NamedEntityGraph(
+        name = Candidate.WITH_SKILLS,
+        attributeNodes = @NamedAttributeNode(value = "candidateSkills", subgraph = "candidateSkills.skill"),
+        subgraphs = @NamedSubgraph(name = "candidateSkills.skill", attributeNodes = @NamedAttributeNode("skill")))
 public class Candidate
 {
+    // Fetch plan for reads that map to CandidateDTO: candidates + join rows + skills in one statement
+    public static final String WITH_SKILLS = "Candidate.withSkills";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_seq")
+    @SequenceGenerator(name = "candidate_seq", sequenceName = "candidate_seq", allocationSize = 50)
     private Integer id;
 
     @Column(nullable = false)
@@ -24,15 +32,22 @@ public class Candidate
     @Column(nullable = false)
     private String education;
 
+    // Bit 1 << ordinal per SkillCategory among the candidate's skills. Set on insert; after that only
+    // written in SQL by the DAOs (CategoryMasks), so an entity update never overwrites a newer value.
+    @Column(name = "category_mask", nullable = false, updatable = false)
+    private int categoryMask;
+
     @OneToMany(mappedBy = "candidate", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CandidateSkill> candidateSkills = new ArrayList<>();
 
     //helpers
+    // Also sets the skill's category bit, which reaches the database with the INSERT (see categoryMask)
     public void addSkill(Skill skill)
     {
         CandidateSkill cs = new CandidateSkill(this, skill);
         candidateSkills.add(cs);
         skill.getCandidateSkills().add(cs);
+        categoryMask |= skill.getCategory().bit();
     }
 
     public void removeSkill(Skill skill)
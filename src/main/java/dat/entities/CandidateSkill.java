@@ -11,7 +11,8 @@ import java.util.Objects;
 public class CandidateSkill
 {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "candidate_skill_seq")
+    @SequenceGenerator(name = "candidate_skill_seq", sequenceName = "candidate_skill_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne(optional = false)
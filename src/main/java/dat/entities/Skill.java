@@ -2,16 +2,26 @@ package dat.entities;
 
 import lombok.*;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Getter
 @Setter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Skill.CACHE_REGION)
 public class Skill
 {
+    // Skills are small, read-mostly reference data: entities and "all skills" queries are cached
+    public static final String CACHE_REGION = "skill";
+    public static final String QUERY_CACHE_REGION = "skill-queries";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "skill_seq")
+    @SequenceGenerator(name = "skill_seq", sequenceName = "skill_seq", allocationSize = 50)
     private Integer id;
 
     @Column
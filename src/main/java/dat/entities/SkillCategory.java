@@ -8,5 +8,11 @@ public enum SkillCategory
     FRONTEND,
     TESTING,
     DATA,
-    FRAMEWORK
+    FRAMEWORK;
+
+    // This category's bit in candidate.category_mask
+    public int bit()
+    {
+        return 1 << ordinal();
+    }
 }
@@ -0,0 +1,156 @@
+package dat.index;
+
+import dat.entities.SkillCategory;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Purpose: Ranks candidates against a MatchQuery over a CandidateSkillIndex snapshot.
+ * Score = sum over query skills the candidate holds of the skill category's weight, optional skills at
+ * OPTIONAL_WEIGHT of that. Each candidate costs one AND + popcount per bitset word and query category,
+ * and only the best `limit` candidates are kept, in a bounded min-heap. Large snapshots are split into
+ * slices scored in parallel on the common fork-join pool, and the slice heaps are merged.
+ */
+public class CandidateMatcher {
+
+    static final double OPTIONAL_WEIGHT = 0.5;
+    private static final int PARALLEL_THRESHOLD = 50_000;
+    private static final int SLICE_SIZE = 16_384;
+
+    private static final Comparator<Match> BEST_FIRST = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparingInt(Match::candidateId);
+    private static final Comparator<Match> WORST_FIRST = BEST_FIRST.reversed();
+
+    public record Match(int candidateId, double score, int requiredMatched, int optionalMatched) { }
+
+    public static List<Match> topK(CandidateSkillIndex.Snapshot snapshot, MatchQuery query) {
+        Scorer scorer = new Scorer(snapshot, query);
+        int size = snapshot.candidateIds().length;
+        PriorityQueue<Match> heap = size >= PARALLEL_THRESHOLD
+                ? ForkJoinPool.commonPool().invoke(new ScoreTask(scorer, 0, size))
+                : scorer.score(0, size);
+        List<Match> result = new ArrayList<>(heap);
+        result.sort(BEST_FIRST);
+        return result;
+    }
+
+    private static final class Scorer {
+        private final int[] ids;
+        private final long[][] skills;
+        private final long[] required;
+        private final long[] optional;
+        private final long[][] masks;     // query skills per category (required and optional separately)
+        private final double[] weights;   // weight of each mask
+        private final int requiredCount;
+        private final boolean requireAll;
+        private final int limit;
+
+        Scorer(CandidateSkillIndex.Snapshot snapshot, MatchQuery query) {
+            this.ids = snapshot.candidateIds();
+            this.skills = snapshot.skills();
+            this.requireAll = query.requireAll();
+            this.limit = query.limit();
+            this.requiredCount = query.required().size();
+
+            Set<Integer> optionalOnly = new HashSet<>(query.optional());
+            optionalOnly.removeAll(query.required());
+            this.required = bits(query.required()).toLongArray();
+            this.optional = bits(optionalOnly).toLongArray();
+
+            EnumMap<SkillCategory, BitSet> requiredByCategory = byCategory(query.required(), snapshot.categoryBySkill());
+            EnumMap<SkillCategory, BitSet> optionalByCategory = byCategory(optionalOnly, snapshot.categoryBySkill());
+            List<long[]> maskList = new ArrayList<>();
+            List<Double> weightList = new ArrayList<>();
+            for (SkillCategory category : SkillCategory.values()) {
+                double weight = query.weights().getOrDefault(category, 1.0);
+                if (requiredByCategory.containsKey(category)) {
+                    maskList.add(requiredByCategory.get(category).toLongArray());
+                    weightList.add(weight);
+                }
+                if (optionalByCategory.containsKey(category)) {
+                    maskList.add(optionalByCategory.get(category).toLongArray());
+                    weightList.add(weight * OPTIONAL_WEIGHT);
+                }
+            }
+            this.masks = maskList.toArray(new long[0][]);
+            this.weights = weightList.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+        PriorityQueue<Match> score(int from, int to) {
+            PriorityQueue<Match> heap = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            for (int i = from; i < to; i++) {
+                long[] words = skills[i];
+                int requiredHits = overlap(words, required);
+                if (requireAll && requiredHits < requiredCount) continue;
+                int optionalHits = overlap(words, optional);
+                if (requiredHits + optionalHits == 0) continue;
+
+                double score = 0;
+                for (int m = 0; m < masks.length; m++) score += weights[m] * overlap(words, masks[m]);
+
+                Match worst = heap.size() < limit ? null : heap.peek();
+                if (worst != null && (score < worst.score() || (score == worst.score() && ids[i] > worst.candidateId())))
+                    continue; // not better than anything kept; skip before allocating
+                offer(heap, new Match(ids[i], score, requiredHits, optionalHits));
+            }
+            return heap;
+        }
+
+        void offer(PriorityQueue<Match> heap, Match match) {
+            if (heap.size() < limit) {
+                heap.add(match);
+            } else if (BEST_FIRST.compare(match, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        private static int overlap(long[] a, long[] b) {
+            int words = Math.min(a.length, b.length);
+            int count = 0;
+            for (int w = 0; w < words; w++) count += Long.bitCount(a[w] & b[w]);
+            return count;
+        }
+
+        private static BitSet bits(Collection<Integer> values) {
+            BitSet bits = new BitSet();
+            values.forEach(bits::set);
+            return bits;
+        }
+
+        // Skills missing from the snapshot no longer exist and are left out
+        private static EnumMap<SkillCategory, BitSet> byCategory(Collection<Integer> skillIds, Map<Integer, SkillCategory> categories) {
+            EnumMap<SkillCategory, BitSet> result = new EnumMap<>(SkillCategory.class);
+            for (Integer skillId : skillIds) {
+                SkillCategory category = categories.get(skillId);
+                if (category != null) result.computeIfAbsent(category, c -> new BitSet()).set(skillId);
+            }
+            return result;
+        }
+    }
+
+    private static final class ScoreTask extends RecursiveTask<PriorityQueue<Match>> {
+        private final Scorer scorer;
+        private final int from;
+        private final int to;
+
+        ScoreTask(Scorer scorer, int from, int to) {
+            this.scorer = scorer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PriorityQueue<Match> compute() {
+            if (to - from <= SLICE_SIZE) return scorer.score(from, to);
+            int mid = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(scorer, from, mid);
+            left.fork();
+            PriorityQueue<Match> heap = new ScoreTask(scorer, mid, to).compute();
+            for (Match match : left.join()) scorer.offer(heap, match);
+            return heap;
+        }
+    }
+}
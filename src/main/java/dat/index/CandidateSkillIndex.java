@@ -0,0 +1,327 @@
+package dat.index;
+
+import dat.entities.SkillCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Purpose: In-memory inverted index from skill id and SkillCategory to the ids of the candidates that
+ * hold them, as BitSets (candidate ids come from a sequence, so the sets are dense).
+ * Built once from the database by whichever DAO is created first (ensureBuilt) and kept current by the
+ * CandidateDAO/SkillDAO write methods after they commit; candidate writes re-read the changed candidates
+ * (refresh). Filters by category or by several skills (AND/OR) are answered from memory. Every query returns a copy the caller may modify.
+ * Also owns the SimilarityIndex (MinHash/LSH) and refreshes a candidate's signature whenever its skills change.
+ */
+public class CandidateSkillIndex {
+
+    private static CandidateSkillIndex instance;
+
+    private static final int STRIPES = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock[] stripes = new Lock[STRIPES]; // serialize refresh() per candidate, see there
+    private final Map<Integer, BitSet> candidatesBySkill = new HashMap<>();
+    private final EnumMap<SkillCategory, BitSet> candidatesByCategory = new EnumMap<>(SkillCategory.class);
+    private final Map<Integer, BitSet> skillsByCandidate = new HashMap<>();
+    private final Map<Integer, SkillCategory> categoryBySkill = new HashMap<>();
+    private final SimilarityIndex similarity = new SimilarityIndex();
+    private volatile Snapshot snapshot; // null after every write, rebuilt by the next snapshot() call
+    private volatile boolean built;
+
+    CandidateSkillIndex() {
+        for (SkillCategory category : SkillCategory.values()) candidatesByCategory.put(category, new BitSet());
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    public static CandidateSkillIndex getInstance() {
+        if (instance == null) instance = new CandidateSkillIndex();
+        return instance;
+    }
+
+    // Builds the index unless that already happened; both DAOs call this, so it does not matter which comes first
+    public synchronized void ensureBuilt(EntityManagerFactory emf) {
+        if (!built) rebuild(emf);
+    }
+
+    // Replaces the whole index with the current database state: three projection queries
+    public void rebuild(EntityManagerFactory emf) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Object[]> skills = em.createQuery("SELECT s.id, s.category FROM Skill s", Object[].class).getResultList();
+            List<Integer> candidates = em.createQuery("SELECT c.id FROM Candidate c", Integer.class).getResultList();
+            List<Object[]> links = em.createQuery(
+                    "SELECT cs.candidate.id, cs.skill.id FROM CandidateSkill cs", Object[].class).getResultList();
+
+            lock.writeLock().lock();
+            try {
+                candidatesBySkill.clear();
+                skillsByCandidate.clear();
+                categoryBySkill.clear();
+                candidatesByCategory.values().forEach(BitSet::clear);
+                similarity.clear();
+                for (Object[] row : skills) categoryBySkill.put((Integer) row[0], (SkillCategory) row[1]);
+                for (Integer id : candidates) skillsByCandidate.put(id, new BitSet());
+                for (Object[] row : links) addLink((Integer) row[0], (Integer) row[1]);
+                for (Integer id : candidates) refreshCategories(id);
+                skillsByCandidate.forEach(similarity::put);
+                snapshot = null;
+                built = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    // --- writes ---
+
+    public void putCandidate(int candidateId, Collection<Integer> skillIds) {
+        lock.writeLock().lock();
+        try {
+            removeCandidateLocked(candidateId);
+            skillsByCandidate.put(candidateId, new BitSet());
+            for (Integer skillId : skillIds) addLink(candidateId, skillId);
+            refreshCategories(candidateId);
+            refreshSimilarity(candidateId);
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeCandidate(int candidateId) {
+        lock.writeLock().lock();
+        try {
+            removeCandidateLocked(candidateId);
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Re-reads the candidates' links after a committed write and applies them; ids that no longer exist
+    // are dropped. Applying the writer's own change instead would race: a link and an unlink of the same
+    // pair could commit in one order and reach the index in the other. Here the read and the apply run
+    // under a per-candidate stripe lock, so the last refresh applied is also the last one that read, and
+    // it saw every commit that finished before it. Costs two indexed queries per write.
+    public void refresh(EntityManagerFactory emf, Collection<Integer> candidateIds) {
+        if (candidateIds.isEmpty()) return;
+        List<Lock> locks = stripesOf(candidateIds);
+        locks.forEach(Lock::lock);
+        try {
+            Map<Integer, List<Integer>> links = new HashMap<>();
+            EntityManager em = emf.createEntityManager();
+            try {
+                for (Integer id : em.createQuery("SELECT c.id FROM Candidate c WHERE c.id IN :ids", Integer.class)
+                        .setParameter("ids", candidateIds).getResultList()) {
+                    links.put(id, new ArrayList<>());
+                }
+                for (Object[] row : em.createQuery(
+                                "SELECT cs.candidate.id, cs.skill.id FROM CandidateSkill cs WHERE cs.candidate.id IN :ids", Object[].class)
+                        .setParameter("ids", candidateIds).getResultList()) {
+                    links.get((Integer) row[0]).add((Integer) row[1]);
+                }
+            } finally {
+                em.close();
+            }
+            apply(candidateIds, links);
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) locks.get(i).unlock();
+        }
+    }
+
+    // Each candidate in ids gets exactly the skills in links, or is removed when links has no entry for it
+    void apply(Collection<Integer> candidateIds, Map<Integer, ? extends Collection<Integer>> links) {
+        lock.writeLock().lock();
+        try {
+            for (Integer candidateId : candidateIds) {
+                removeCandidateLocked(candidateId);
+                Collection<Integer> skillIds = links.get(candidateId);
+                if (skillIds == null) continue;
+                skillsByCandidate.put(candidateId, new BitSet());
+                for (Integer skillId : skillIds) addLink(candidateId, skillId);
+                refreshCategories(candidateId);
+                refreshSimilarity(candidateId);
+            }
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Skill created or updated; a changed category moves every holder to the new category
+    public void putSkill(int skillId, SkillCategory category) {
+        lock.writeLock().lock();
+        try {
+            SkillCategory previous = categoryBySkill.put(skillId, category);
+            if (previous != null && previous != category) {
+                BitSet holders = candidatesBySkill.getOrDefault(skillId, new BitSet());
+                holders.stream().forEach(this::refreshCategories);
+            }
+            snapshot = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeSkill(int skillId) {
+        lock.writeLock().lock();
+        try {
+            snapshot = null;
+            categoryBySkill.remove(skillId);
+            BitSet holders = candidatesBySkill.remove(skillId);
+            if (holders == null) return;
+            holders.stream().forEach(candidateId -> {
+                BitSet skills = skillsByCandidate.get(candidateId);
+                if (skills != null) skills.clear(skillId);
+                refreshCategories(candidateId);
+                refreshSimilarity(candidateId);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- queries ---
+
+    public BitSet withCategory(SkillCategory category) {
+        lock.readLock().lock();
+        try {
+            return (BitSet) candidatesByCategory.get(category).clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Candidates holding every skill (AND); empty input matches nobody
+    public BitSet withAllSkills(Collection<Integer> skillIds) {
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (Integer skillId : skillIds) {
+                BitSet holders = candidatesBySkill.get(skillId);
+                if (holders == null) return new BitSet();
+                if (result == null) result = (BitSet) holders.clone();
+                else result.and(holders);
+            }
+            return result == null ? new BitSet() : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Candidates holding at least one of the skills (OR)
+    public BitSet withAnySkill(Collection<Integer> skillIds) {
+        lock.readLock().lock();
+        try {
+            BitSet result = new BitSet();
+            for (Integer skillId : skillIds) {
+                BitSet holders = candidatesBySkill.get(skillId);
+                if (holders != null) result.or(holders);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int holderCount(int skillId) {
+        lock.readLock().lock();
+        try {
+            BitSet holders = candidatesBySkill.get(skillId);
+            return holders == null ? 0 : holders.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to k candidates with the most similar skill sets, best first; null if the candidate is unknown
+    public List<SimilarityIndex.Similar> similarTo(int candidateId, int k) {
+        lock.readLock().lock();
+        try {
+            if (!skillsByCandidate.containsKey(candidateId)) return null;
+            return similarity.similarTo(candidateId, k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Array copy of every candidate's skill set for full scans (CandidateMatcher). Shared between
+    // callers until the next write; the arrays must not be modified.
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null) return current;
+        lock.readLock().lock();
+        try {
+            int[] ids = new int[skillsByCandidate.size()];
+            long[][] skills = new long[ids.length][];
+            int i = 0;
+            for (Map.Entry<Integer, BitSet> entry : skillsByCandidate.entrySet()) {
+                ids[i] = entry.getKey();
+                skills[i] = entry.getValue().toLongArray();
+                i++;
+            }
+            current = new Snapshot(ids, skills, Map.copyOf(categoryBySkill));
+            snapshot = current; // still under the read lock, so no write can slip in between
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // skills[i] holds the skill ids of candidateIds[i] as BitSet words
+    public record Snapshot(int[] candidateIds, long[][] skills, Map<Integer, SkillCategory> categoryBySkill) { }
+
+    // Distinct stripes in index order, so two refreshes over overlapping candidates can't deadlock
+    private List<Lock> stripesOf(Collection<Integer> candidateIds) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Integer id : candidateIds) indexes.add(Math.floorMod(id, STRIPES));
+        List<Lock> result = new ArrayList<>(indexes.size());
+        for (Integer i : indexes) result.add(stripes[i]);
+        return result;
+    }
+
+    // --- internals, caller holds the write lock ---
+
+    private void addLink(int candidateId, int skillId) {
+        skillsByCandidate.computeIfAbsent(candidateId, id -> new BitSet()).set(skillId);
+        candidatesBySkill.computeIfAbsent(skillId, id -> new BitSet()).set(candidateId);
+    }
+
+    private void removeCandidateLocked(int candidateId) {
+        BitSet skills = skillsByCandidate.remove(candidateId);
+        if (skills != null) {
+            skills.stream().forEach(skillId -> {
+                BitSet holders = candidatesBySkill.get(skillId);
+                if (holders != null) holders.clear(candidateId);
+            });
+        }
+        candidatesByCategory.values().forEach(bits -> bits.clear(candidateId));
+        similarity.remove(candidateId);
+    }
+
+    private void refreshSimilarity(int candidateId) {
+        BitSet skills = skillsByCandidate.get(candidateId);
+        if (skills == null) similarity.remove(candidateId);
+        else similarity.put(candidateId, skills);
+    }
+
+    private void refreshCategories(int candidateId) {
+        EnumSet<SkillCategory> held = EnumSet.noneOf(SkillCategory.class);
+        BitSet skills = skillsByCandidate.get(candidateId);
+        if (skills != null) {
+            skills.stream().forEach(skillId -> {
+                SkillCategory category = categoryBySkill.get(skillId);
+                if (category != null) held.add(category);
+            });
+        }
+        candidatesByCategory.forEach((category, bits) -> bits.set(candidateId, held.contains(category)));
+    }
+}
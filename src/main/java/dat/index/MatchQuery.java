@@ -0,0 +1,17 @@
+package dat.index;
+
+import dat.entities.SkillCategory;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Purpose: A ranked matching request for CandidateMatcher. Skills are resolved ids; categories
+ * without a weight count 1.0. With requireAll only candidates holding every required skill rank.
+ */
+public record MatchQuery(Set<Integer> required,
+                         Set<Integer> optional,
+                         Map<SkillCategory, Double> weights,
+                         boolean requireAll,
+                         int limit) {
+}
@@ -0,0 +1,129 @@
+package dat.index;
+
+import java.util.*;
+
+/**
+ * Purpose: Nearest neighbours by Jaccard similarity of skill sets, without comparing every pair.
+ * Each candidate gets a MinHash signature of NUM_HASHES values. The signature is cut into BANDS bands of
+ * ROWS values, and each band is hashed into a bucket (LSH). Candidates sharing a bucket in any band
+ * are compared exactly. Two sets with similarity s share at least one bucket with probability
+ * 1 - (1 - s^ROWS)^BANDS: about 0.5 at s = 0.4 and above 0.98 at s = 0.6.
+ * Kept current by CandidateSkillIndex under its write lock. This class is not thread safe by itself.
+ */
+public class SimilarityIndex {
+
+    static final int BANDS = 32;
+    static final int ROWS = 4;
+    static final int NUM_HASHES = BANDS * ROWS;
+    private static final long PRIME = (1L << 31) - 1; // Mersenne prime 2^31 - 1
+    private static final long SEED = 0x5EEDL;          // fixed, so signatures are stable between runs
+
+    // h_i(x) = (a_i * x + b_i) mod PRIME, universal hashing over skill ids
+    private static final long[] A = new long[NUM_HASHES];
+    private static final long[] B = new long[NUM_HASHES];
+
+    static {
+        Random random = new Random(SEED);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            A[i] = 1 + random.nextInt((int) PRIME - 1);
+            B[i] = random.nextInt((int) PRIME);
+        }
+    }
+
+    private final Map<Integer, BitSet> skillsByCandidate = new HashMap<>();
+    private final Map<Integer, long[]> bucketsByCandidate = new HashMap<>(); // one bucket key per band
+    private final List<Map<Long, Set<Integer>>> bands = new ArrayList<>(BANDS);
+
+    public record Similar(int candidateId, double similarity) { }
+
+    public SimilarityIndex() {
+        for (int band = 0; band < BANDS; band++) bands.add(new HashMap<>());
+    }
+
+    // Adds the candidate or replaces its skills. Candidates without skills are similar to nobody.
+    public void put(int candidateId, BitSet skills) {
+        remove(candidateId);
+        if (skills.isEmpty()) return;
+        long[] buckets = bucketKeys(signature(skills));
+        skillsByCandidate.put(candidateId, (BitSet) skills.clone());
+        bucketsByCandidate.put(candidateId, buckets);
+        for (int band = 0; band < BANDS; band++) {
+            bands.get(band).computeIfAbsent(buckets[band], key -> new HashSet<>()).add(candidateId);
+        }
+    }
+
+    public void remove(int candidateId) {
+        skillsByCandidate.remove(candidateId);
+        long[] buckets = bucketsByCandidate.remove(candidateId);
+        if (buckets == null) return;
+        for (int band = 0; band < BANDS; band++) {
+            Map<Long, Set<Integer>> bucketMap = bands.get(band);
+            Set<Integer> members = bucketMap.get(buckets[band]);
+            if (members == null) continue;
+            members.remove(candidateId);
+            if (members.isEmpty()) bucketMap.remove(buckets[band]);
+        }
+    }
+
+    public void clear() {
+        skillsByCandidate.clear();
+        bucketsByCandidate.clear();
+        bands.forEach(Map::clear);
+    }
+
+    // The k most similar candidates among the LSH matches, best first, ranked on exact Jaccard.
+    // Ties go to the lower id.
+    public List<Similar> similarTo(int candidateId, int k) {
+        BitSet skills = skillsByCandidate.get(candidateId);
+        long[] buckets = bucketsByCandidate.get(candidateId);
+        if (skills == null || k <= 0) return List.of();
+
+        Set<Integer> matches = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) matches.addAll(bands.get(band).get(buckets[band]));
+        matches.remove(candidateId);
+
+        Comparator<Similar> bestFirst = Comparator.comparingDouble(Similar::similarity).reversed()
+                .thenComparingInt(Similar::candidateId);
+        PriorityQueue<Similar> heap = new PriorityQueue<>(k + 1, bestFirst.reversed());
+        for (Integer other : matches) {
+            heap.add(new Similar(other, jaccard(skills, skillsByCandidate.get(other))));
+            if (heap.size() > k) heap.poll();
+        }
+        List<Similar> result = new ArrayList<>(heap);
+        result.sort(bestFirst);
+        return result;
+    }
+
+    static double jaccard(BitSet a, BitSet b) {
+        BitSet intersection = (BitSet) a.clone();
+        intersection.and(b);
+        int shared = intersection.cardinality();
+        int union = a.cardinality() + b.cardinality() - shared;
+        return union == 0 ? 0 : (double) shared / union;
+    }
+
+    private static int[] signature(BitSet skills) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int skillId = skills.nextSetBit(0); skillId >= 0; skillId = skills.nextSetBit(skillId + 1)) {
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) ((A[i] * skillId + B[i]) % PRIME);
+                if (h < signature[i]) signature[i] = h;
+            }
+        }
+        return signature;
+    }
+
+    // A 64-bit hash of the band's ROWS values. A rare collision only adds a pair to the exact comparison.
+    private static long[] bucketKeys(int[] signature) {
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = 1;
+            for (int row = 0; row < ROWS; row++) {
+                key = key * 0x9E3779B97F4A7C15L + signature[band * ROWS + row];
+            }
+            keys[band] = key ^ (key >>> 29);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,125 @@
+package dat.index;
+
+import dat.dtos.SkillDTO;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Purpose: Prefix lookup over skill names and description words for autocomplete.
+ * Keys are normalized (accents stripped, lower case) and kept in one sorted array, so a lookup is a
+ * binary search plus a scan over the keys that share the prefix. Matches are ranked by how many
+ * candidates hold the skill (CandidateSkillIndex), name matches before description-only matches.
+ * Writes rebuild the arrays and swap them in (skills are few and rarely change); reads take no lock.
+ */
+public class SkillSuggestIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}#+]+");
+    private static final int MIN_WORD_LENGTH = 2;
+
+    private final CandidateSkillIndex holders;
+    private final Map<Integer, SkillDTO> skills = new HashMap<>();
+    private volatile Keys keys = new Keys(new String[0], new int[0], new boolean[0], Map.of());
+
+    // keys sorted; skillIds[i] and fromName[i] belong to keys[i]
+    private record Keys(String[] keys, int[] skillIds, boolean[] fromName, Map<Integer, SkillDTO> skills) { }
+
+    private record Entry(String key, int skillId, boolean fromName) { }
+
+    public SkillSuggestIndex(CandidateSkillIndex holders) {
+        this.holders = holders;
+    }
+
+    public synchronized void rebuild(Collection<SkillDTO> all) {
+        skills.clear();
+        all.forEach(skill -> skills.put(skill.getId(), skill));
+        keys = buildKeys();
+    }
+
+    public synchronized void put(SkillDTO skill) {
+        skills.put(skill.getId(), skill);
+        keys = buildKeys();
+    }
+
+    public synchronized void remove(int skillId) {
+        if (skills.remove(skillId) != null) keys = buildKeys();
+    }
+
+    public List<SkillDTO> suggest(String query, int limit) {
+        String prefix = normalize(query.trim());
+        if (prefix.isEmpty()) return List.of();
+        Keys current = keys;
+
+        int from = lowerBound(current.keys(), prefix);
+        Map<Integer, Boolean> matches = new HashMap<>(); // skill id -> matched on its name
+        for (int i = from; i < current.keys().length && current.keys()[i].startsWith(prefix); i++) {
+            matches.merge(current.skillIds()[i], current.fromName()[i], Boolean::logicalOr);
+        }
+
+        Map<Integer, Integer> counts = new HashMap<>();
+        matches.keySet().forEach(id -> counts.put(id, holders.holderCount(id)));
+        Map<Integer, SkillDTO> byId = current.skills();
+        return matches.keySet().stream()
+                .sorted(Comparator.<Integer, Boolean>comparing(id -> !matches.get(id))
+                        .thenComparingInt(id -> -counts.get(id))
+                        .thenComparing(id -> byId.get(id).getName(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(limit)
+                .map(byId::get)
+                .toList();
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    // First index whose key is >= prefix
+    private static int lowerBound(String[] keys, String prefix) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // The full name, each word of the name and each word of the description
+    private Keys buildKeys() {
+        List<Entry> entries = new ArrayList<>();
+        for (SkillDTO skill : skills.values()) {
+            Set<String> nameKeys = new HashSet<>();
+            if (skill.getName() != null) {
+                String name = normalize(skill.getName().trim());
+                nameKeys.add(name);
+                nameKeys.addAll(words(name));
+            }
+            Set<String> descriptionKeys = new HashSet<>();
+            if (skill.getDescription() != null) descriptionKeys.addAll(words(normalize(skill.getDescription())));
+            descriptionKeys.removeAll(nameKeys);
+
+            nameKeys.forEach(key -> entries.add(new Entry(key, skill.getId(), true)));
+            descriptionKeys.forEach(key -> entries.add(new Entry(key, skill.getId(), false)));
+        }
+        entries.sort(Comparator.comparing(Entry::key));
+
+        String[] sortedKeys = new String[entries.size()];
+        int[] skillIds = new int[entries.size()];
+        boolean[] fromName = new boolean[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            sortedKeys[i] = entries.get(i).key();
+            skillIds[i] = entries.get(i).skillId();
+            fromName[i] = entries.get(i).fromName();
+        }
+        return new Keys(sortedKeys, skillIds, fromName, Map.copyOf(skills));
+    }
+
+    private static List<String> words(String text) {
+        return Arrays.stream(WORD_SEPARATOR.split(text))
+                .filter(word -> word.length() >= MIN_WORD_LENGTH)
+                .toList();
+    }
+}
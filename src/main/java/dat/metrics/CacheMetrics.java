@@ -0,0 +1,60 @@
+package dat.metrics;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import dat.dtos.CacheStatsDTO;
+import dat.entities.Skill;
+
+import javax.cache.Cache;
+import javax.cache.Caching;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Purpose: Second-level cache statistics per region, read from the JCache statistics MXBean that
+ * Caffeine registers per cache (monitoring.statistics in application.conf). They do not depend on
+ * hibernate.generate_statistics, which is off in deployed mode. The element count is Caffeine's estimate.
+ */
+public class CacheMetrics {
+
+    private static final List<String> REGIONS = List.of(Skill.CACHE_REGION, Skill.QUERY_CACHE_REGION);
+    private static final String[] ATTRIBUTES = {"CacheHits", "CacheMisses", "CachePuts", "CacheEvictions"};
+
+    public static List<CacheStatsDTO> snapshot() {
+        return REGIONS.stream().map(region -> {
+            long[] stats = statistics(region);
+            return new CacheStatsDTO(region, stats[0], stats[1], stats[2], stats[3], size(region));
+        }).toList();
+    }
+
+    // ATTRIBUTES in order, zero while the region does not exist yet or has statistics disabled
+    private static long[] statistics(String region) {
+        long[] totals = new long[ATTRIBUTES.length];
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + region);
+            List<String> names = List.of(ATTRIBUTES);
+            for (ObjectName name : server.queryNames(pattern, null)) {
+                for (Attribute attribute : server.getAttributes(name, ATTRIBUTES).asList()) {
+                    totals[names.indexOf(attribute.getName())] += ((Number) attribute.getValue()).longValue();
+                }
+            }
+        } catch (Exception e) {
+            // statistics disabled for the region
+        }
+        return totals;
+    }
+
+    // Hibernate creates the regions in the provider's default cache manager
+    private static long size(String region) {
+        try {
+            Cache<?, ?> cache = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                    .getCacheManager().getCache(region);
+            return cache == null ? 0 : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package dat.metrics;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purpose: Timing per DAO operation (e.g. CandidateDAO.readAll). instrument() wraps a DAO in a proxy of
+ * its interface that times every call and counts failures. While a call runs, SqlMetrics.Listener adds
+ * the JDBC work done on the same thread (statements, execution time, connection checkout), so a slow
+ * operation can be split into database time and everything else: EntityManager setup, hydration and
+ * DTO mapping.
+ */
+public class DaoMetrics {
+
+    private static final Map<String, Timer> operations = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> statements = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> sqlMicros = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> connectionMicros = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Operation> current = new ThreadLocal<>();
+
+    private static final class Operation {
+        long statements;
+        long sqlNanos;
+        long connectionNanos;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T instrument(Class<T> type, T target) {
+        String prefix = target.getClass().getSimpleName() + ".";
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) return method.invoke(target, args);
+
+            String labels = Timer.label("operation", prefix + method.getName());
+            Operation outer = current.get();
+            Operation operation = new Operation();
+            current.set(operation);
+            long start = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                counter(errors, labels).increment();
+                throw e.getCause();
+            } finally {
+                operations.computeIfAbsent(labels, k -> new Timer()).record((System.nanoTime() - start) / 1000);
+                counter(statements, labels).add(operation.statements);
+                counter(sqlMicros, labels).add(operation.sqlNanos / 1000);
+                counter(connectionMicros, labels).add(operation.connectionNanos / 1000);
+                if (outer == null) current.remove();
+                else current.set(outer);
+            }
+        });
+    }
+
+    // --- called by SqlMetrics.Listener on the thread doing the work ---
+
+    static void statementExecuted(long nanos) {
+        Operation operation = current.get();
+        if (operation == null) return;
+        operation.statements++;
+        operation.sqlNanos += nanos;
+    }
+
+    static void connectionAcquired(long nanos) {
+        Operation operation = current.get();
+        if (operation != null) operation.connectionNanos += nanos;
+    }
+
+    public static void writePrometheus(StringBuilder out) {
+        Timer.writeSummaries(out, "dao_operation_duration_seconds", "DAO call latency by operation.", operations);
+        Timer.writeCounters(out, "dao_operation_errors_total", "DAO calls that threw.", errors);
+        Timer.writeCounters(out, "dao_operation_statements_total", "SQL statements executed inside DAO calls.", statements);
+        writeSeconds(out, "dao_operation_sql_seconds_total", "Time spent executing SQL inside DAO calls.", sqlMicros);
+        writeSeconds(out, "dao_operation_connection_seconds_total", "Time spent acquiring connections inside DAO calls.", connectionMicros);
+    }
+
+    private static void writeSeconds(StringBuilder out, String name, String help, Map<String, LongAdder> micros) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        new TreeMap<>(micros).forEach((labels, value) ->
+                out.append(name).append('{').append(labels).append("} ").append(Timer.seconds(value.sum())).append('\n'));
+    }
+
+    private static LongAdder counter(Map<String, LongAdder> counters, String labels) {
+        return counters.computeIfAbsent(labels, k -> new LongAdder());
+    }
+}
@@ -0,0 +1,43 @@
+package dat.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purpose: Password hashing bulkhead (PasswordHasher): time spent waiting in the queue, time spent
+ * hashing, and requests turned away with 503 because the queue was full or the result took too long.
+ */
+public class HashingMetrics {
+
+    private static final Timer queueTime = new Timer();
+    private static final Timer hashTime = new Timer();
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder timedOut = new LongAdder();
+
+    public static void queued(long nanos) {
+        queueTime.record(nanos / 1000);
+    }
+
+    public static void hashed(long nanos) {
+        hashTime.record(nanos / 1000);
+    }
+
+    public static void rejected() {
+        rejected.increment();
+    }
+
+    public static void timedOut() {
+        timedOut.increment();
+    }
+
+    public static void writePrometheus(StringBuilder out) {
+        Timer.writeSummaries(out, "password_hash_queue_seconds", "Wait before a hashing thread picked the task up.",
+                Map.of("pool=\"password-hasher\"", queueTime));
+        Timer.writeSummaries(out, "password_hash_duration_seconds", "BCrypt hash or verify time.",
+                Map.of("pool=\"password-hasher\"", hashTime));
+        Timer.writeCounters(out, "password_hash_rejected_total", "Requests rejected with 503, queue full.",
+                Map.of("pool=\"password-hasher\"", rejected));
+        Timer.writeCounters(out, "password_hash_timeouts_total", "Requests answered with 503, PASSWORD_HASH_TIMEOUT_MS passed.",
+                Map.of("pool=\"password-hasher\"", timedOut));
+    }
+}
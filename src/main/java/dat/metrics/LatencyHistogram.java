@@ -0,0 +1,62 @@
+package dat.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Purpose: Lock-free latency histogram in microseconds with log-linear buckets (HdrHistogram style):
+ * every power of two is split into SUB_BUCKETS linear buckets, so a reported percentile is within
+ * about 3% of the real value, from 1 microsecond up to about 19 hours, in a fixed 1024-slot array.
+ * Recording is one atomic increment, safe from any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_SHIFT = 30;
+    private static final int BUCKETS = SUB_BUCKETS * (MAX_SHIFT + 2);
+    private static final long MAX_VALUE = (1L << (MAX_SHIFT + SUB_BITS + 1)) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(index(value));
+        max.accumulate(value);
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    // Highest value in the bucket holding the p-th percentile (0 < p <= 100), 0 when empty
+    public long percentileMicros(double p) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) total += counts.get(i);
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), maxMicros());
+        }
+        return maxMicros();
+    }
+
+    // Values below SUB_BUCKETS get a bucket each; above that each power of two has SUB_BUCKETS buckets
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+}
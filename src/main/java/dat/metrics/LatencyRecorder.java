@@ -0,0 +1,42 @@
+package dat.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Purpose: Interval latency recording. Writers record into the active histogram; swap() installs a
+ * fresh one and returns the old one once the writers still inside it have finished, so no sample is
+ * lost or counted twice and writers never block. A writer that picked up a histogram just before
+ * it was swapped out notices and records into the new one instead.
+ */
+public class LatencyRecorder {
+
+    private volatile Window active = new Window();
+
+    private static final class Window {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final AtomicLong writers = new AtomicLong();
+    }
+
+    public void record(long micros) {
+        while (true) {
+            Window window = active;
+            window.writers.incrementAndGet();
+            try {
+                if (window == active) {
+                    window.histogram.record(micros);
+                    return;
+                }
+            } finally {
+                window.writers.decrementAndGet();
+            }
+        }
+    }
+
+    // Everything recorded since the previous swap
+    public synchronized LatencyHistogram swap() {
+        Window old = active;
+        active = new Window();
+        while (old.writers.get() != 0) Thread.onSpinWait();
+        return old.histogram;
+    }
+}
@@ -0,0 +1,65 @@
+package dat.metrics;
+
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Purpose: Reports virtual threads pinned to their carrier, e.g. blocking inside a synchronized block
+ * somewhere in the JDBC/Hibernate stack. Listens to the JFR event jdk.VirtualThreadPinned (JDK 21).
+ * Each pin longer than THRESHOLD is logged with its stack and counted per culprit frame: the first
+ * frame outside java.* and jdk.*. The counts are on /api/metrics as virtual_thread_pinned_total.
+ * Only started when AppConfig.virtualThreads is on.
+ */
+public class PinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Duration THRESHOLD = Duration.ofMillis(20);
+    private static final int LOGGED_FRAMES = 12;
+
+    private static final Map<String, LongAdder> pinnedByFrame = new ConcurrentHashMap<>();
+    private static RecordingStream stream;
+
+    public static synchronized void start() {
+        if (stream != null) return;
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(THRESHOLD).withStackTrace();
+        stream.onEvent(PINNED_EVENT, event -> {
+            List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+            String culprit = frames.stream()
+                    .map(PinningMonitor::describe)
+                    .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk."))
+                    .findFirst()
+                    .orElse("unknown");
+            pinnedByFrame.computeIfAbsent(Timer.label("frame", culprit), k -> new LongAdder()).increment();
+            logger.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), stack(event.getStackTrace()));
+        });
+        stream.startAsync();
+        logger.info("Watching for virtual thread pinning over {} ms", THRESHOLD.toMillis());
+    }
+
+    public static void writePrometheus(StringBuilder out) {
+        Timer.writeCounters(out, "virtual_thread_pinned_total",
+                "Virtual threads pinned longer than " + THRESHOLD.toMillis() + " ms, by first non-JDK frame.", pinnedByFrame);
+    }
+
+    private static String stack(RecordedStackTrace trace) {
+        if (trace == null) return "unknown";
+        return trace.getFrames().stream().limit(LOGGED_FRAMES).map(PinningMonitor::describe)
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
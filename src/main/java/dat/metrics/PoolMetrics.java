@@ -0,0 +1,57 @@
+package dat.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import dat.dtos.PoolStatsDTO;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purpose: Collects HikariCP pool statistics. Hikari instantiates this class itself
+ * (see hibernate.hikari.metricsTrackerFactory in HibernateConfig), so the state is static.
+ */
+public class PoolMetrics implements MetricsTrackerFactory {
+
+    private static final LongAdder acquireCount = new LongAdder();
+    private static final LongAdder acquireNanos = new LongAdder();
+    private static final LongAccumulator acquireMaxNanos = new LongAccumulator(Long::max, 0);
+    private static final LongAdder timeouts = new LongAdder();
+    private static volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats stats) {
+        poolStats = stats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquireCount.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                acquireMaxNanos.accumulate(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public static PoolStatsDTO snapshot() {
+        PoolStats stats = poolStats;
+        long count = acquireCount.sum();
+        double avgMs = count == 0 ? 0 : (double) acquireNanos.sum() / count / TimeUnit.MILLISECONDS.toNanos(1);
+        double maxMs = (double) acquireMaxNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+        if (stats == null) // pool not started yet
+            return new PoolStatsDTO(0, 0, 0, 0, 0, count, avgMs, maxMs, timeouts.sum());
+        return new PoolStatsDTO(
+                stats.getActiveConnections(),
+                stats.getIdleConnections(),
+                stats.getPendingThreads(),
+                stats.getTotalConnections(),
+                stats.getMaxConnections(),
+                count, avgMs, maxMs, timeouts.sum());
+    }
+}
@@ -0,0 +1,30 @@
+package dat.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purpose: Per-route request counters and latency, fed by the Javalin request logger
+ * (see ApplicationConfig) and written in Prometheus text format for GET /api/metrics (loopback only).
+ * Routes are endpoint paths such as /api/candidates/{id}, not raw URLs, so the number of series stays
+ * bounded. Counts and sums are cumulative. Quantiles and max cover the interval since the previous
+ * scrape (LatencyRecorder.swap), so there should be one scraper.
+ */
+public class RouteMetrics {
+
+    private static final Map<String, Timer> routes = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    public static void record(String method, String route, int status, long micros) {
+        String labels = Timer.label("method", method) + "," + Timer.label("route", route);
+        routes.computeIfAbsent(labels, k -> new Timer()).record(micros);
+        requests.computeIfAbsent(labels + "," + Timer.label("status", String.valueOf(status)), k -> new LongAdder())
+                .increment();
+    }
+
+    public static void writePrometheus(StringBuilder out) {
+        Timer.writeCounters(out, "http_requests_total", "Requests handled, by route and status.", requests);
+        Timer.writeSummaries(out, "http_request_duration_seconds", "Request latency by route.", routes);
+    }
+}
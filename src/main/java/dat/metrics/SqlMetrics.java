@@ -0,0 +1,134 @@
+package dat.metrics;
+
+import org.hibernate.engine.spi.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Purpose: JDBC level timing from Hibernate's own hooks, no datasource proxy needed.
+ * Inspector (hibernate.session_factory.statement_inspector) sees each SQL string before it is prepared,
+ * and Listener (hibernate.session.events.auto, one instance per session) times its execution on the
+ * same thread. Statements the DAOs run on a raw Connection (Session.doWork) bypass both hooks and are
+ * timed with time(sql, ...) instead. Statements are aggregated by verb and table ("select candidate").
+ * A statement slower than the threshold is logged with its SQL and bind parameter count, never the values.
+ */
+public class SqlMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlMetrics.class);
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<String> lastSql = new ThreadLocal<>();
+    private static final Map<String, Timer> statements = new ConcurrentHashMap<>();
+    private static final LongAdder slowStatements = new LongAdder();
+    private static volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(200);
+
+    public static void setSlowThresholdMs(long ms) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    @FunctionalInterface
+    public interface Execution<T> {
+        T execute() throws SQLException;
+    }
+
+    // Times a statement run on a raw JDBC connection like the listener times Hibernate's own:
+    // SqlMetrics.time(sql, statement::executeQuery)
+    public static <T> T time(String sql, Execution<T> execution) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return execution.execute();
+        } finally {
+            executed(sql, System.nanoTime() - start);
+        }
+    }
+
+    public static class Inspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            lastSql.set(sql);
+            return sql;
+        }
+    }
+
+    public static class Listener extends BaseSessionEventListener {
+        private long connectionStart;
+        private long executeStart;
+
+        @Override
+        public void jdbcConnectionAcquisitionStart() {
+            connectionStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcConnectionAcquisitionEnd() {
+            DaoMetrics.connectionAcquired(System.nanoTime() - connectionStart);
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            executed(lastSql.get(), System.nanoTime() - executeStart);
+            lastSql.remove();
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            executed(lastSql.get(), System.nanoTime() - executeStart);
+            lastSql.remove(); // a later statement without a fresh inspect is "unknown", not this one
+        }
+    }
+
+    private static void executed(String sql, long nanos) {
+        String label = sql == null ? "unknown" : label(sql);
+        statements.computeIfAbsent(Timer.label("statement", label), k -> new Timer()).record(nanos / 1000);
+        DaoMetrics.statementExecuted(nanos);
+
+        if (nanos >= slowThresholdNanos && sql != null) {
+            slowStatements.increment();
+            logger.warn("Slow statement ({} ms, {} bind parameters): {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), sql.chars().filter(c -> c == '?').count(), shape(sql));
+        }
+    }
+
+    // "select candidate", "insert candidateskill", or just the verb for e.g. sequence calls
+    static String label(String sql) {
+        String stripped = COMMENT.matcher(sql).replaceAll("").trim();
+        String verb = WHITESPACE.split(stripped, 2)[0].toLowerCase();
+        Matcher table = TABLE.matcher(stripped);
+        return table.find() ? verb + " " + table.group(1).toLowerCase() : verb;
+    }
+
+    // One line, comments dropped and IN lists folded to (?...), so equal statements log alike
+    static String shape(String sql) {
+        String stripped = COMMENT.matcher(sql).replaceAll("");
+        return WHITESPACE.matcher(IN_LIST.matcher(stripped).replaceAll("(?...)")).replaceAll(" ").trim();
+    }
+
+    public static void writePrometheus(StringBuilder out) {
+        Timer.writeSummaries(out, "db_statement_duration_seconds", "JDBC execution time by statement kind.", statements);
+        out.append("# HELP db_slow_statements_total Statements over the slow query threshold.\n");
+        out.append("# TYPE db_slow_statements_total counter\n");
+        out.append("db_slow_statements_total ").append(slowStatements.sum()).append('\n');
+    }
+}
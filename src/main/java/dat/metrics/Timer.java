@@ -0,0 +1,64 @@
+package dat.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purpose: One latency series: cumulative count and sum plus an interval histogram (LatencyRecorder).
+ * writeSummaries renders a set of them as a Prometheus summary with p50/p95/p99, and a max gauge;
+ * quantiles and max cover the interval since the previous scrape.
+ */
+class Timer {
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    final LongAdder count = new LongAdder();
+    final LongAdder sumMicros = new LongAdder();
+    final LatencyRecorder latency = new LatencyRecorder();
+
+    void record(long micros) {
+        count.increment();
+        sumMicros.add(micros);
+        latency.record(micros);
+    }
+
+    // timers keyed by their rendered label set, e.g. method="GET",route="/api/candidates"
+    static void writeSummaries(StringBuilder out, String name, String help, Map<String, Timer> timers) {
+        Map<String, Timer> sorted = new TreeMap<>(timers);
+        Map<String, LatencyHistogram> windows = new TreeMap<>();
+        sorted.forEach((labels, timer) -> windows.put(labels, timer.latency.swap()));
+
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" summary\n");
+        sorted.forEach((labels, timer) -> {
+            LatencyHistogram window = windows.get(labels);
+            for (double q : QUANTILES) {
+                out.append(name).append('{').append(labels).append(",quantile=\"").append(q).append("\"} ")
+                        .append(seconds(window.percentileMicros(q * 100))).append('\n');
+            }
+            out.append(name).append("_sum{").append(labels).append("} ").append(seconds(timer.sumMicros.sum())).append('\n');
+            out.append(name).append("_count{").append(labels).append("} ").append(timer.count.sum()).append('\n');
+        });
+
+        out.append("# HELP ").append(name).append("_max Slowest since the previous scrape.\n");
+        out.append("# TYPE ").append(name).append("_max gauge\n");
+        windows.forEach((labels, window) -> out.append(name).append("_max{").append(labels).append("} ")
+                .append(seconds(window.maxMicros())).append('\n'));
+    }
+
+    static void writeCounters(StringBuilder out, String name, String help, Map<String, LongAdder> counters) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        new TreeMap<>(counters).forEach((labels, counter) ->
+                out.append(name).append('{').append(labels).append("} ").append(counter.sum()).append('\n'));
+    }
+
+    static String seconds(long micros) {
+        return Double.toString(micros / 1_000_000.0);
+    }
+
+    static String label(String name, String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
@@ -0,0 +1,21 @@
+package dat.routes;
+
+import dat.controllers.impl.AdminController;
+import dat.security.enums.Role;
+import io.javalin.apibuilder.EndpointGroup;
+
+import static io.javalin.apibuilder.ApiBuilder.*;
+
+public class AdminRoute {
+
+    private final AdminController adminController = new AdminController();
+
+    protected EndpointGroup getRoutes() {
+        return () -> {
+            get("/pool", adminController::pool, Role.ADMIN);
+            get("/cache", adminController::cache, Role.ADMIN);
+            get("/category-masks", adminController::categoryMasks, Role.ADMIN);
+            post("/category-masks", adminController::categoryMasks, Role.ADMIN);
+        };
+    }
+}
@@ -12,12 +12,20 @@ public class CandidateRoute {
     protected EndpointGroup getRoutes() {
         return () -> {
             get("/", candidateController::readAll);
+            get("/export", candidateController::export); // before /{id}
             get("/{id}", candidateController::read);
+            get("/{id}/similar", candidateController::similar);
             post("/", candidateController::create);
+            post("/import", candidateController::importCandidates);
+            post("/match", candidateController::match);
+            post("/skills", candidateController::assignSkillsBulk);
             put("/{id}", candidateController::update);
             delete("/{id}", candidateController::delete);
 
+            put("/{candidateId}/skills", candidateController::assignSkills);
+            post("/{candidateId}/skills", candidateController::assignSkills);
             put("/{candidateId}/skills/{skillId}", candidateController::linkSkill);
+            delete("/{candidateId}/skills/{skillId}", candidateController::unlinkSkill);
         };
     }
 }
\ No newline at end of file
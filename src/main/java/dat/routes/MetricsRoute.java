@@ -0,0 +1,18 @@
+package dat.routes;
+
+import dat.controllers.impl.MetricsController;
+import dat.security.enums.Role;
+import io.javalin.apibuilder.EndpointGroup;
+
+import static io.javalin.apibuilder.ApiBuilder.*;
+
+public class MetricsRoute {
+
+    private final MetricsController metricsController = new MetricsController();
+
+    protected EndpointGroup getRoutes() {
+        return () -> {
+            get("/", metricsController::prometheus, Role.ANYONE);
+        };
+    }
+}
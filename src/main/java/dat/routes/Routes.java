@@ -7,11 +7,15 @@ public class Routes {
 
     private final CandidateRoute candidateRoute = new CandidateRoute();
     private final SkillRoute skillRoute = new SkillRoute();
+    private final AdminRoute adminRoute = new AdminRoute();
+    private final MetricsRoute metricsRoute = new MetricsRoute();
 
     public EndpointGroup getRoutes() {
         return () -> {
             path("/candidates", candidateRoute.getRoutes());
             path("/skills", skillRoute.getRoutes());
+            path("/admin", adminRoute.getRoutes());
+            path("/metrics", metricsRoute.getRoutes());
         };
     }
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ public class SkillRoute {
     protected EndpointGroup getRoutes() {
         return () -> {
             get("/", skillController::readAll);
+            get("/suggest", skillController::suggest); // before /{id}
             get("/{id}", skillController::read);
             post("/", skillController::create);
             put("/{id}", skillController::update);
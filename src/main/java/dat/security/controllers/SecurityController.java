@@ -3,14 +3,16 @@ package dat.security.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.nimbusds.jose.JOSEException;
-import dat.utils.Utils;
+import dat.config.AppConfig;
 import dat.config.HibernateConfig;
+import dat.metrics.DaoMetrics;
 import dat.security.daos.ISecurityDAO;
 import dat.security.daos.SecurityDAO;
 import dat.security.entities.User;
 import dat.security.exceptions.ApiException;
 import dat.security.exceptions.NotAuthorizedException;
 import dat.security.exceptions.ValidationException;
+import dat.security.tokens.TokenVerifier;
 import dk.bugelhartmann.ITokenSecurity;
 import dk.bugelhartmann.TokenSecurity;
 import dk.bugelhartmann.UserDTO;
@@ -34,19 +36,36 @@ import java.util.stream.Collectors;
  * Author: Thomas Hartmann
  */
 public class SecurityController implements ISecurityController {
+    private static final int TOKEN_CACHE_SIZE = 10_000;
+
     ObjectMapper objectMapper = new ObjectMapper();
     ITokenSecurity tokenSecurity = new TokenSecurity();
     private static ISecurityDAO securityDAO;
     private static SecurityController instance;
     private static Logger logger = LoggerFactory.getLogger(SecurityController.class);
 
-    private SecurityController() { }
+    // From AppConfig, loaded once at startup
+    private final String issuer;
+    private final String tokenExpireTime;
+    private final String secretKey;
+    private final TokenVerifier tokenVerifier;
+
+    private SecurityController(AppConfig config) {
+        issuer = config.issuer();
+        tokenExpireTime = config.tokenExpireTime();
+        secretKey = config.secretKey();
+        try {
+            tokenVerifier = new TokenVerifier(secretKey, issuer, TOKEN_CACHE_SIZE);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("SECRET_KEY must be at least 256 bits", e);
+        }
+    }
 
     public static SecurityController getInstance() { // Singleton because we don't want multiple instances of the same class
         if (instance == null) {
-            instance = new SecurityController();
+            instance = new SecurityController(AppConfig.get());
+            securityDAO = DaoMetrics.instrument(ISecurityDAO.class, new SecurityDAO(HibernateConfig.getEntityManagerFactory()));
         }
-        securityDAO = new SecurityDAO(HibernateConfig.getEntityManagerFactory());
         return instance;
     }
 
@@ -116,7 +135,7 @@ public class SecurityController implements ISecurityController {
             if (verifiedTokenUser == null) {
                 throw new UnauthorizedResponse("Invalid User or Token");
             }
-            logger.info("User verified: " + verifiedTokenUser);
+            logger.debug("User verified: {}", verifiedTokenUser);
             ctx.attribute("user", verifiedTokenUser);
         };
     }
@@ -138,20 +157,7 @@ public class SecurityController implements ISecurityController {
     @Override
     public String createToken(UserDTO user) {
         try {
-            String ISSUER;
-            String TOKEN_EXPIRE_TIME;
-            String SECRET_KEY;
-
-            if (System.getenv("DEPLOYED") != null) {
-                ISSUER = System.getenv("ISSUER");
-                TOKEN_EXPIRE_TIME = System.getenv("TOKEN_EXPIRE_TIME");
-                SECRET_KEY = System.getenv("SECRET_KEY");
-            } else {
-                ISSUER = Utils.getPropertyValue("ISSUER", "config.properties");
-                TOKEN_EXPIRE_TIME = Utils.getPropertyValue("TOKEN_EXPIRE_TIME", "config.properties");
-                SECRET_KEY = Utils.getPropertyValue("SECRET_KEY", "config.properties");
-            }
-            return tokenSecurity.createToken(user, ISSUER, TOKEN_EXPIRE_TIME, SECRET_KEY);
+            return tokenSecurity.createToken(user, issuer, tokenExpireTime, secretKey);
         } catch (Exception e) {
             e.printStackTrace();
             throw new ApiException(500, "Could not create token");
@@ -159,18 +165,16 @@ public class SecurityController implements ISecurityController {
     }
 
     @Override
+    // Repeated tokens are answered from TokenVerifier's cache without parsing or signature checks
     public UserDTO verifyToken(String token) {
-        boolean IS_DEPLOYED = (System.getenv("DEPLOYED") != null);
-        String SECRET = IS_DEPLOYED ? System.getenv("SECRET_KEY") : Utils.getPropertyValue("SECRET_KEY", "config.properties");
-
         try {
-            if (tokenSecurity.tokenIsValid(token, SECRET) && tokenSecurity.tokenNotExpired(token)) {
-                return tokenSecurity.getUserWithRolesFromToken(token);
-            } else {
+            UserDTO user = tokenVerifier.verify(token);
+            if (user == null) {
                 throw new NotAuthorizedException(403, "Token is not valid");
             }
+            return user;
         } catch (ParseException | JOSEException | NotAuthorizedException e) {
-            e.printStackTrace();
+            logger.debug("Token rejected: {}", e.getMessage());
             throw new ApiException(HttpStatus.UNAUTHORIZED.getCode(), "Unauthorized. Could not verify token");
         }
     }
@@ -34,24 +34,29 @@ public class SecurityDAO implements ISecurityDAO {
 
     @Override
     public UserDTO getVerifiedUser(String username, String password) throws ValidationException {
+        User user;
         try (EntityManager em = getEntityManager()) {
-            User user = em.find(User.class, username);
+            user = em.find(User.class, username);
             if (user == null)
                 throw new EntityNotFoundException("No user found with username: " + username); //RuntimeException
             user.getRoles().size(); // force roles to be fetched from db
-            if (!user.verifyPassword(password))
-                throw new ValidationException("Wrong password");
-            return new UserDTO(user.getUsername(), user.getRoles().stream().map(r -> r.getRoleName()).collect(Collectors.toSet()));
         }
+        // EntityManager closed first: no connection is held while BCrypt runs
+        if (!user.verifyPassword(password))
+            throw new ValidationException("Wrong password");
+        return new UserDTO(user.getUsername(), user.getRoles().stream().map(r -> r.getRoleName()).collect(Collectors.toSet()));
     }
 
     @Override
     public User createUser(String username, String password) {
+        // Hash before opening the EntityManager, so no connection waits on BCrypt. Overload (503) is not
+        // caught below.
+        User newUser = new User(username, password);
         try (EntityManager em = getEntityManager()) {
             User userEntity = em.find(User.class, username);
             if (userEntity != null)
                 throw new EntityExistsException("User with username: " + username + " already exists");
-            userEntity = new User(username, password);
+            userEntity = newUser;
             em.getTransaction().begin();
             Role userRole = em.find(Role.class, "user");
             if (userRole == null)
@@ -1,8 +1,8 @@
 package dat.security.entities;
 
 import jakarta.persistence.*;
+import dat.security.hashing.PasswordHasher;
 import lombok.*;
-import org.mindrot.jbcrypt.BCrypt;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -49,13 +49,14 @@ public class User implements Serializable, ISecurityUser {
         return rolesAsStrings;
     }
 
+    // BCrypt runs on the PasswordHasher pool, which may reject with 503 under load
     public boolean verifyPassword(String pw) {
-        return BCrypt.checkpw(pw, this.password);
+        return PasswordHasher.getInstance().verify(pw, this.password);
     }
 
     public User(String userName, String userPass) {
         this.username = userName;
-        this.password = BCrypt.hashpw(userPass, BCrypt.gensalt());
+        this.password = PasswordHasher.getInstance().hash(userPass);
     }
 
     public User(String userName, Set<Role> roleEntityList) {
@@ -0,0 +1,17 @@
+package dat.security.exceptions;
+
+/**
+ * Purpose: Overload. Answered with 503 and a Retry-After header (see ApplicationConfig.apiExceptionHandler)
+ */
+public class ServiceUnavailableException extends ApiException {
+    private final int retryAfterSeconds;
+
+    public ServiceUnavailableException(int retryAfterSeconds, String msg) {
+        super(503, msg);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,95 @@
+package dat.security.hashing;
+
+import dat.config.AppConfig;
+import dat.metrics.HashingMetrics;
+import dat.security.exceptions.ServiceUnavailableException;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Purpose: Bulkhead for BCrypt. Hashing and verifying run on a small dedicated pool with a bounded queue,
+ * so a burst of logins can use at most threads + queue request threads and cannot starve the other
+ * endpoints. When the queue is full the caller gets a ServiceUnavailableException (503 + Retry-After)
+ * right away, and the same when its result is not there within PASSWORD_HASH_TIMEOUT_MS, so a stalled pool
+ * cannot hold request threads indefinitely. Queue wait and hashing time go to HashingMetrics.
+ */
+public class PasswordHasher {
+
+    private static final int RETRY_AFTER_SECONDS = 1;
+    private static PasswordHasher instance;
+
+    private final int cost;
+    private final long timeoutMs;
+    private final ThreadPoolExecutor executor;
+
+    private PasswordHasher(AppConfig config) {
+        this(config.bcryptCost(), config.hashThreads(), config.hashQueueSize(), config.hashTimeoutMs());
+    }
+
+    PasswordHasher(int cost, int threads, int queueSize, long timeoutMs) {
+        this.cost = cost;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                task -> {
+                    Thread thread = new Thread(task, "password-hasher-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) instance = new PasswordHasher(AppConfig.get());
+        return instance;
+    }
+
+    public String hash(String password) {
+        return run(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+    }
+
+    // Existing hashes keep the cost they were made with, so changing BCRYPT_COST needs no migration
+    public boolean verify(String password, String hash) {
+        return run(() -> BCrypt.checkpw(password, hash));
+    }
+
+    // Runs the task on the pool and waits for it on the calling thread, at most timeoutMs
+    <T> T run(Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                HashingMetrics.queued(started - submitted);
+                try {
+                    return task.call();
+                } finally {
+                    HashingMetrics.hashed(System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            HashingMetrics.rejected();
+            throw new ServiceUnavailableException(RETRY_AFTER_SECONDS, "Too many login requests, try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A task still in the queue is taken out, so it frees its slot; BCrypt itself ignores the interrupt
+            future.cancel(true);
+            if (future instanceof Runnable queued) executor.remove(queued);
+            HashingMetrics.timedOut();
+            throw new ServiceUnavailableException(RETRY_AFTER_SECONDS, "Password hashing is too slow right now, try again shortly");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(RETRY_AFTER_SECONDS, "Interrupted while waiting for password hashing");
+        }
+    }
+}
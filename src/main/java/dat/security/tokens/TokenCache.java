@@ -0,0 +1,82 @@
+package dat.security.tokens;
+
+import dk.bugelhartmann.UserDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Purpose: Remembers tokens that already passed signature and expiry checks, until they expire.
+ * Keyed by the SHA-256 of the whole token, so the token itself is not kept in memory and a hit means
+ * exactly the token that was verified. Bounded: past maxEntries the least recently used entry goes.
+ */
+public class TokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE ships SHA-256
+        }
+    });
+
+    private record Entry(UserDTO user, long expiresAtMillis) { }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Entry> entries;
+
+    public TokenCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // The cached user, or null if the token is unknown or has expired since
+    public UserDTO get(String token) {
+        String key = hash(token);
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.user();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String token, UserDTO user, Instant expiresAt) {
+        String key = hash(token);
+        lock.lock();
+        try {
+            entries.put(key, new Entry(user, expiresAt.toEpochMilli()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String hash(String token) {
+        return HexFormat.of().formatHex(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,61 @@
+package dat.security.tokens;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import dk.bugelhartmann.UserDTO;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Purpose: Token verification for every protected request.
+ * A cached token costs one SHA-256 and a map lookup. An unknown token is parsed once: its HMAC
+ * signature, issuer and expiry are checked on that parse with a MACVerifier built once from the secret,
+ * and the user is read from the same claims (the "username" and "roles" claims TokenSecurity.createToken
+ * writes). The user is then cached until the token's expiry.
+ */
+public class TokenVerifier {
+
+    private final MACVerifier verifier;
+    private final String issuer;
+    private final TokenCache cache;
+
+    public TokenVerifier(String secret, String issuer, int cacheSize) throws JOSEException {
+        this.verifier = new MACVerifier(secret);
+        this.issuer = issuer;
+        this.cache = new TokenCache(cacheSize);
+    }
+
+    // The token's user, or null if the signature, issuer or expiry does not hold
+    public UserDTO verify(String token) throws ParseException, JOSEException {
+        UserDTO cached = cache.get(token);
+        if (cached != null) return cached;
+
+        SignedJWT jwt = SignedJWT.parse(token);
+        JWTClaimsSet claims = jwt.getJWTClaimsSet();
+        Date expires = claims.getExpirationTime();
+        if (expires == null || !expires.after(new Date()) || !issuer.equals(claims.getIssuer())
+                || !jwt.verify(verifier)) return null;
+
+        String username = claims.getStringClaim("username");
+        if (username == null) return null;
+        UserDTO user = new UserDTO(username, roles(claims.getClaim("roles")));
+        cache.put(token, user, expires.toInstant());
+        return user;
+    }
+
+    // TokenSecurity writes the roles as one comma separated string; a JSON array is accepted as well
+    static Set<String> roles(Object claim) {
+        Stream<String> names = claim instanceof Collection<?> list
+                ? list.stream().map(String::valueOf)
+                : claim == null ? Stream.empty() : Arrays.stream(claim.toString().split(","));
+        return names.map(String::trim).filter(name -> !name.isEmpty()).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,40 @@
+package dat.utils;
+
+import io.javalin.http.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Purpose: Structured access log, one JSON line per request on the "access" logger (see logback.xml).
+ * Requests answered below 400 are sampled at AppConfig.accessLogSampleRate (0..1, default 1 = all).
+ * Errors are always logged. Each line carries the rate, so counts can be scaled back up.
+ */
+public class AccessLog {
+
+    private static final Logger logger = LoggerFactory.getLogger("access");
+    private static volatile double sampleRate = 1.0;
+
+    public static void setSampleRate(double rate) {
+        sampleRate = rate;
+    }
+
+    public static void log(Context ctx, String route, float executionTimeMs) {
+        log(ctx.method().name(), ctx.path(), route, ctx.status().getCode(), executionTimeMs);
+    }
+
+    static void log(String method, String path, String route, int status, float executionTimeMs) {
+        if (status < 400 && sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+        if (!logger.isInfoEnabled()) return;
+
+        logger.atInfo()
+                .addKeyValue("method", method)
+                .addKeyValue("path", path)
+                .addKeyValue("route", route)
+                .addKeyValue("status", status)
+                .addKeyValue("ms", executionTimeMs)
+                .addKeyValue("sampleRate", status < 400 ? sampleRate : 1.0)
+                .log("request");
+    }
+}
@@ -0,0 +1,139 @@
+package dat.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dat.dtos.CandidateDTO;
+import dat.dtos.SkillDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Purpose: Parses one line of a candidate import into a CandidateDTO. Skills are given by id or by name.
+ * NDJSON: {"name": "...", "phone": "12345678", "education": "...", "skills": [1, "Docker"]}
+ * CSV: a header with name, phone, education and optionally skills (separated by ';'). Quoted fields may
+ * contain commas and "" escapes, but not line breaks.
+ * Every parse error is thrown as an IllegalArgumentException so the importer can report it per row.
+ */
+public class CandidateRowParser {
+
+    private static final ObjectMapper MAPPER = new Utils().getObjectMapper();
+
+    private final Map<String, Integer> columns; // null when parsing NDJSON
+
+    private CandidateRowParser(Map<String, Integer> columns) {
+        this.columns = columns;
+    }
+
+    public static CandidateRowParser ndjson() {
+        return new CandidateRowParser(null);
+    }
+
+    public static CandidateRowParser csv(String headerLine) {
+        if (headerLine == null || headerLine.isBlank())
+            throw new IllegalArgumentException("CSV header is missing");
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = splitCsv(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "phone", "education")) {
+            if (!columns.containsKey(required))
+                throw new IllegalArgumentException("CSV header must contain " + required);
+        }
+        return new CandidateRowParser(columns);
+    }
+
+    public CandidateDTO parse(String line) {
+        return columns == null ? parseJson(line) : parseCsv(line);
+    }
+
+    private CandidateDTO parseJson(String line) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (node == null || !node.isObject())
+            throw new IllegalArgumentException("Expected a JSON object");
+
+        List<SkillDTO> skills = new ArrayList<>();
+        JsonNode skillsNode = node.get("skills");
+        if (skillsNode != null && skillsNode.isArray()) {
+            for (JsonNode skill : skillsNode) {
+                if (skill.isObject())
+                    skills.add(skill.hasNonNull("id") ? skillRef(skill.get("id").asText()) : skillRef(text(skill, "name")));
+                else
+                    skills.add(skillRef(skill.asText()));
+            }
+        }
+        return new CandidateDTO(null, text(node, "name"), text(node, "phone"), text(node, "education"), skills);
+    }
+
+    private CandidateDTO parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        List<SkillDTO> skills = new ArrayList<>();
+        String skillsField = field(fields, "skills");
+        if (skillsField != null && !skillsField.isBlank()) {
+            for (String token : skillsField.split(";")) {
+                if (!token.isBlank()) skills.add(skillRef(token));
+            }
+        }
+        return new CandidateDTO(null, field(fields, "name"), field(fields, "phone"), field(fields, "education"), skills);
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index).trim();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText().trim();
+    }
+
+    // Digits are a skill id, anything else a skill name
+    private static SkillDTO skillRef(String token) {
+        if (token == null || token.isBlank())
+            throw new IllegalArgumentException("Empty skill reference");
+        SkillDTO skill = new SkillDTO();
+        String value = token.trim();
+        if (value.matches("\\d{1,9}")) skill.setId(Integer.valueOf(value));
+        else skill.setName(value);
+        return skill;
+    }
+
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,26 @@
+package dat.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Purpose: Keyset position (name, id) of the last row on a page, handed to clients as an opaque string.
+ * A null name is encoded without the separator ("id" instead of "id:name") and decodes back to null.
+ */
+public record Cursor(String name, Integer id) {
+
+    public String encode() {
+        String raw = name == null ? String.valueOf(id) : id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns null for a missing cursor (first page). Throws IllegalArgumentException if it was tampered with.
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+        String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        int sep = raw.indexOf(':');
+        if (sep == 0) throw new IllegalArgumentException("Malformed cursor");
+        if (sep < 0) return new Cursor(null, Integer.valueOf(raw));
+        return new Cursor(raw.substring(sep + 1), Integer.valueOf(raw.substring(0, sep)));
+    }
+}
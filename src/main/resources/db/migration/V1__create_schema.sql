@@ -0,0 +1,60 @@
+-- Baseline schema, matching the entity mappings (hibernate.hbm2ddl.auto=validate checks them at boot).
+-- Sequences step by 50 to match allocationSize = 50 on the entities (pooled-lo).
+
+CREATE SEQUENCE candidate_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE skill_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE candidate_skill_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE candidate
+(
+    id        integer      NOT NULL PRIMARY KEY,
+    name      varchar(255) NOT NULL,
+    phone     varchar(255) NOT NULL CONSTRAINT uk_candidate_phone UNIQUE,
+    education varchar(255) NOT NULL
+);
+
+CREATE TABLE skill
+(
+    id          integer      NOT NULL PRIMARY KEY,
+    name        varchar(255),
+    category    varchar(255) NOT NULL
+        CHECK (category IN ('PROG_LANG', 'DB', 'DEVOPS', 'FRONTEND', 'TESTING', 'DATA', 'FRAMEWORK')),
+    description varchar(255)
+);
+
+-- The DAOs delete join rows explicitly; ON DELETE CASCADE also covers deletes made outside them
+CREATE TABLE candidateskill
+(
+    id           integer NOT NULL PRIMARY KEY,
+    candidate_id integer NOT NULL CONSTRAINT fk_candidateskill_candidate REFERENCES candidate (id) ON DELETE CASCADE,
+    skill_id     integer NOT NULL CONSTRAINT fk_candidateskill_skill REFERENCES skill (id) ON DELETE CASCADE,
+    CONSTRAINT uk_candidate_skill UNIQUE (candidate_id, skill_id)
+);
+
+CREATE TABLE roles
+(
+    name varchar(20) NOT NULL PRIMARY KEY
+);
+
+CREATE TABLE users
+(
+    username varchar(25)  NOT NULL PRIMARY KEY,
+    password varchar(255) NOT NULL
+);
+
+CREATE TABLE user_roles
+(
+    user_name varchar(25) NOT NULL CONSTRAINT fk_user_roles_user REFERENCES users (username) ON DELETE CASCADE,
+    role_name varchar(20) NOT NULL CONSTRAINT fk_user_roles_role REFERENCES roles (name) ON DELETE CASCADE,
+    PRIMARY KEY (user_name, role_name)
+);
+
+-- Ordering and keyset paging on (name, id)
+CREATE INDEX ix_candidate_name_id ON candidate (name, id);
+-- Skill -> candidates (category filters, unlink/delete by skill); uk_candidate_skill covers the candidate side
+CREATE INDEX ix_candidateskill_skill_candidate ON candidateskill (skill_id, candidate_id);
+CREATE INDEX ix_skill_category ON skill (category);
+-- Case-insensitive lookups by name
+CREATE INDEX ix_skill_lower_name ON skill (lower(name));
+-- user_roles is read by user_name through its primary key; this serves the role side
+CREATE INDEX ix_user_roles_role ON user_roles (role_name);
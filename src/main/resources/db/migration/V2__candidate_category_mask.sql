@@ -0,0 +1,29 @@
+-- candidate.category_mask: bit (1 << ordinal of SkillCategory) set for every category among the
+-- candidate's skills. Maintained by the DAOs (see CategoryMasks); category filters read it without
+-- joining candidateskill and skill. The bits follow the enum order, so new categories go at the end.
+--   PROG_LANG 1, DB 2, DEVOPS 4, FRONTEND 8, TESTING 16, DATA 32, FRAMEWORK 64
+
+ALTER TABLE candidate ADD COLUMN category_mask integer NOT NULL DEFAULT 0;
+
+UPDATE candidate c
+SET category_mask = coalesce((SELECT bit_or(CASE s.category
+                                                WHEN 'PROG_LANG' THEN 1
+                                                WHEN 'DB' THEN 2
+                                                WHEN 'DEVOPS' THEN 4
+                                                WHEN 'FRONTEND' THEN 8
+                                                WHEN 'TESTING' THEN 16
+                                                WHEN 'DATA' THEN 32
+                                                WHEN 'FRAMEWORK' THEN 64 END)
+                              FROM candidateskill cs
+                                       JOIN skill s ON s.id = cs.skill_id
+                              WHERE cs.candidate_id = c.id), 0);
+
+-- One partial index per category in keyset order. A page of "candidates with a DEVOPS skill" is a
+-- range scan of ix_candidate_cat_devops; the predicates must match CategoryMasks.anyOf literally.
+CREATE INDEX ix_candidate_cat_prog_lang ON candidate (name, id) WHERE (category_mask & 1) <> 0;
+CREATE INDEX ix_candidate_cat_db ON candidate (name, id) WHERE (category_mask & 2) <> 0;
+CREATE INDEX ix_candidate_cat_devops ON candidate (name, id) WHERE (category_mask & 4) <> 0;
+CREATE INDEX ix_candidate_cat_frontend ON candidate (name, id) WHERE (category_mask & 8) <> 0;
+CREATE INDEX ix_candidate_cat_testing ON candidate (name, id) WHERE (category_mask & 16) <> 0;
+CREATE INDEX ix_candidate_cat_data ON candidate (name, id) WHERE (category_mask & 32) <> 0;
+CREATE INDEX ix_candidate_cat_framework ON candidate (name, id) WHERE (category_mask & 64) <> 0;
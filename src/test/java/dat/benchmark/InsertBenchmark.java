@@ -0,0 +1,99 @@
+package dat.benchmark;
+
+import dat.config.HibernateConfig;
+import dat.entities.Candidate;
+import dat.entities.CandidateSkill;
+import dat.entities.Skill;
+import dat.entities.SkillCategory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purpose: Compares candidate + skill link insert cost with JDBC batching off (batch size 1, one round
+ * trip per row like the old IDENTITY ids) and on (50, hibernate.jdbc.batch_size). One operation is one
+ * inserted row, candidate or join row; each invocation inserts CANDIDATES candidates in one transaction.
+ * Uses the Testcontainers database of the tests, so it needs Docker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(InsertBenchmark.CANDIDATES * (1 + InsertBenchmark.SKILLS_PER_CANDIDATE))
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InsertBenchmark {
+
+    static final int CANDIDATES = 5_000;
+    static final int SKILLS_PER_CANDIDATE = 5;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private EntityManagerFactory emf;
+    private List<Integer> skillIds;
+    private int run;
+
+    @Setup
+    public void setUp() {
+        emf = HibernateConfig.getEntityManagerFactoryForTest();
+        skillIds = createSkills(emf, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public void insert() {
+        int thisRun = run++;
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            em.getTransaction().begin();
+            for (int i = 0; i < CANDIDATES; i++) {
+                Candidate c = new Candidate();
+                c.setName("Bench " + thisRun + "-" + i);
+                c.setPhone(String.format("%08d", thisRun * CANDIDATES + i));
+                c.setEducation("Benchmark");
+                for (int k = 0; k < SKILLS_PER_CANDIDATE; k++) {
+                    Skill s = em.getReference(Skill.class, skillIds.get((i + k) % skillIds.size()));
+                    c.getCandidateSkills().add(new CandidateSkill(c, s));
+                }
+                em.persist(c);
+                if (i % 500 == 499) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static List<Integer> createSkills(EntityManagerFactory emf, int count) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            List<Skill> skills = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Skill s = new Skill();
+                s.setName("Bench skill " + i);
+                s.setCategory(SkillCategory.values()[i % SkillCategory.values().length]);
+                em.persist(s);
+                skills.add(s);
+            }
+            em.getTransaction().commit();
+            return skills.stream().map(Skill::getId).toList();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package dat.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purpose: Closed-loop HTTP load against a running server, to compare platform-thread and
+ * virtual-thread request handling (VIRTUAL_THREADS=false / true) under the same connection pool.
+ * Each JMH thread is one client sending requests back to back, mixing single reads and paged lists;
+ * the sample time run reports p50/p95/p99/max, the throughput run requests per second.
+ * Start the server (Main) against a seeded database first. Its name keeps it out of the default
+ * benchmark run; select it by name and set clients and duration with -t and -r, e.g.
+ * -Dbenchmark=LoadTest -Djmh.args="-t 400 -r 30s -p baseUrl=http://localhost:7070/api"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(400)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 1, time = 30)
+@Fork(1)
+public class LoadTest {
+
+    @Param("http://localhost:7070/api")
+    public String baseUrl;
+
+    private final LongAdder errors = new LongAdder();
+    private HttpClient client;
+    private List<Integer> ids;
+
+    @Setup
+    public void setUp() throws Exception {
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ids = candidateIds(client, baseUrl);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.printf("%n%,d failed requests%n", errors.sum());
+    }
+
+    @Benchmark
+    public int request() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(nextPath()))
+                .timeout(Duration.ofSeconds(30)).GET().build();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 400) errors.increment();
+            return status;
+        } catch (Exception e) {
+            errors.increment();
+            return -1;
+        }
+    }
+
+    // 80% single candidate reads, 20% first pages of the list
+    private String nextPath() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) < 8) return baseUrl + "/candidates/" + ids.get(random.nextInt(ids.size()));
+        return baseUrl + "/candidates?limit=50";
+    }
+
+    // Ids from the export, so the test works on any seeded database
+    private static List<Integer> candidateIds(HttpClient client, String baseUrl) throws Exception {
+        String body = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/candidates/export")).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode candidate : new ObjectMapper().readTree(body)) ids.add(candidate.get("id").asInt());
+        if (ids.isEmpty()) throw new IllegalStateException("No candidates at " + baseUrl + "; seed the database first");
+        return ids;
+    }
+}
@@ -0,0 +1,99 @@
+package dat.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Purpose: Access-log cost seen by request threads: a synchronous FileAppender (the old setup) against
+ * the same appender behind an AsyncAppender as configured in logback.xml. THREADS threads log JSON
+ * access lines; reported is the time a caller spends inside the log call. The async appender never
+ * blocks and drops events when its queue is full, so the tear down prints how many lines reached the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(LoggingBenchmark.THREADS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    static final int THREADS = 16;
+
+    @Param({"false", "true"})
+    public boolean async;
+
+    private final LongAdder logged = new LongAdder();
+    private LoggerContext context;
+    private Logger logger;
+    private File out;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        context.start();
+
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        out = File.createTempFile("access", ".json");
+        file.setFile(out.getPath());
+        file.setEncoder(encoder);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(16384);
+            asyncAppender.setDiscardingThreshold(0);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.addAppender(file);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+
+        logger = context.getLogger("access");
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop(); // drains the async queue
+        long written;
+        try (var lines = Files.lines(out.toPath())) {
+            written = lines.count();
+        }
+        System.out.printf("%n%,d of %,d access lines written%n", written, logged.sum());
+        Files.deleteIfExists(out.toPath());
+    }
+
+    @Benchmark
+    public void accessLine() {
+        logger.atInfo()
+                .addKeyValue("method", "GET")
+                .addKeyValue("path", "/api/candidates/" + ThreadLocalRandom.current().nextInt(100_000))
+                .addKeyValue("route", "/api/candidates/{id}")
+                .addKeyValue("status", 200)
+                .addKeyValue("ms", 1.5f)
+                .log("request");
+        logged.increment();
+    }
+}
@@ -0,0 +1,73 @@
+package dat.benchmark;
+
+import dat.entities.SkillCategory;
+import dat.index.CandidateMatcher;
+import dat.index.CandidateSkillIndex;
+import dat.index.MatchQuery;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purpose: Latency of CandidateMatcher.topK over a synthetic snapshot of a few hundred thousand
+ * candidates, the size POST /api/candidates/match is meant to answer in single-digit milliseconds.
+ * Sample time mode reports p50/p99/max per candidate count; no database involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatchBenchmark {
+
+    private static final int SKILLS = 500;
+    private static final int QUERIES = 1024; // cycled, so every sample is a different query
+
+    @Param({"50000", "200000", "500000"})
+    public int candidates;
+
+    private CandidateSkillIndex.Snapshot snapshot;
+    private MatchQuery[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        snapshot = snapshot(candidates, new Random(1));
+        Random random = new Random(2);
+        queries = new MatchQuery[QUERIES];
+        for (int i = 0; i < QUERIES; i++) queries[i] = query(random);
+    }
+
+    @Benchmark
+    public List<CandidateMatcher.Match> topK() {
+        return CandidateMatcher.topK(snapshot, queries[next++ & (QUERIES - 1)]);
+    }
+
+    // Three to eight required skills, a few optional ones, one category weighted up
+    private static MatchQuery query(Random random) {
+        Set<Integer> required = new HashSet<>();
+        for (int n = 3 + random.nextInt(6); n > 0; n--) required.add(random.nextInt(SKILLS));
+        Set<Integer> optional = new HashSet<>();
+        for (int n = random.nextInt(5); n > 0; n--) optional.add(random.nextInt(SKILLS));
+        SkillCategory weighted = SkillCategory.values()[random.nextInt(SkillCategory.values().length)];
+        return new MatchQuery(required, optional, Map.of(weighted, 2.0), false, 20);
+    }
+
+    private static CandidateSkillIndex.Snapshot snapshot(int candidates, Random random) {
+        Map<Integer, SkillCategory> categories = new HashMap<>();
+        SkillCategory[] values = SkillCategory.values();
+        for (int skill = 0; skill < SKILLS; skill++) categories.put(skill, values[skill % values.length]);
+
+        int[] ids = new int[candidates];
+        long[][] skills = new long[candidates][];
+        for (int i = 0; i < candidates; i++) {
+            BitSet held = new BitSet();
+            for (int n = 5 + random.nextInt(20); n > 0; n--) held.set(random.nextInt(SKILLS));
+            ids[i] = i + 1;
+            skills[i] = held.toLongArray();
+        }
+        return new CandidateSkillIndex.Snapshot(ids, skills, categories);
+    }
+}
@@ -0,0 +1,95 @@
+package dat.benchmark;
+
+import dat.config.HibernateConfig;
+import dat.config.Populate;
+import dat.daos.impl.CandidateDAO;
+import dat.dtos.CandidateDTO;
+import dat.entities.Candidate;
+import dat.entities.CandidateSkill;
+import dat.entities.Skill;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Purpose: Compares the old entity-hydrating candidate listing (managed entities + fetch graph +
+ * CandidateDTO.fromEntity) with the projection read path in CandidateDAO.readAll. Add -prof gc
+ * (-Djmh.args="-prof gc") for the bytes allocated per call, gc.alloc.rate.norm.
+ * The setup starts a PostgreSQL test container, so Docker must be running.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadPathBenchmark {
+
+    private static final int EXTRA_CANDIDATES = 2_000;
+
+    private EntityManagerFactory emf;
+    private CandidateDAO dao;
+
+    @Setup
+    public void setUp() {
+        emf = HibernateConfig.getEntityManagerFactoryForTest();
+        new Populate().seed(emf);
+        seedCandidates(emf);
+        dao = CandidateDAO.getInstance(emf);
+    }
+
+    @TearDown
+    public void tearDown() {
+        emf.close();
+    }
+
+    @Benchmark
+    public List<CandidateDTO> entityHydration() {
+        return readAllAsEntities(emf);
+    }
+
+    @Benchmark
+    public List<CandidateDTO> dtoProjection() {
+        return dao.readAll();
+    }
+
+    // The read path before projections: managed entities with snapshots, copied into DTOs
+    private static List<CandidateDTO> readAllAsEntities(EntityManagerFactory emf) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT c FROM Candidate c ORDER BY c.name", Candidate.class)
+                    .setHint("jakarta.persistence.fetchgraph", em.getEntityGraph(Candidate.WITH_SKILLS))
+                    .getResultList()
+                    .stream()
+                    .map(CandidateDTO::fromEntity)
+                    .collect(Collectors.toList());
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void seedCandidates(EntityManagerFactory emf) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            List<Skill> skills = em.createQuery("SELECT s FROM Skill s", Skill.class).getResultList();
+            em.getTransaction().begin();
+            for (int i = 0; i < EXTRA_CANDIDATES; i++) {
+                Candidate c = new Candidate();
+                c.setName("Reader " + i);
+                c.setPhone(String.format("9%07d", i));
+                c.setEducation("Benchmark");
+                for (int k = 0; k < 4; k++) {
+                    c.getCandidateSkills().add(new CandidateSkill(c, skills.get((i + k * 3) % skills.size())));
+                }
+                em.persist(c);
+            }
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dat.benchmark;
+
+import dat.security.tokens.TokenVerifier;
+import dk.bugelhartmann.ITokenSecurity;
+import dk.bugelhartmann.TokenSecurity;
+import dk.bugelhartmann.UserDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purpose: Cost of verifying the token of an authenticated request: the old path (tokenIsValid +
+ * tokenNotExpired + getUserWithRolesFromToken, three parses and three signature checks) against
+ * TokenVerifier on a cache hit and on a miss (a fresh verifier, so one parse and one signature check).
+ * No database needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final String ISSUER = "bench";
+
+    private ITokenSecurity tokenSecurity;
+    private String token;
+    private TokenVerifier cached;
+
+    @Setup
+    public void setUp() throws Exception {
+        tokenSecurity = new TokenSecurity();
+        token = tokenSecurity.createToken(new UserDTO("bench", Set.of("USER", "ADMIN")), ISSUER, "3600000", SECRET);
+        cached = new TokenVerifier(SECRET, ISSUER, 10_000);
+    }
+
+    @Benchmark
+    public UserDTO oldPath() throws Exception {
+        if (tokenSecurity.tokenIsValid(token, SECRET) && tokenSecurity.tokenNotExpired(token))
+            return tokenSecurity.getUserWithRolesFromToken(token);
+        return null;
+    }
+
+    @Benchmark
+    public UserDTO verifierMiss() throws Exception {
+        return new TokenVerifier(SECRET, ISSUER, 1).verify(token);
+    }
+
+    @Benchmark
+    public UserDTO verifierHit() throws Exception {
+        return cached.verify(token);
+    }
+}
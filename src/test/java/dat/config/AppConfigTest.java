@@ -0,0 +1,115 @@
+package dat.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AppConfigTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private static Map<String, String> validEnv() {
+        Map<String, String> env = new HashMap<>();
+        env.put("DB_NAME", "candidates");
+        env.put("ISSUER", "dat");
+        env.put("TOKEN_EXPIRE_TIME", "3600000");
+        env.put("SECRET_KEY", SECRET);
+        return env;
+    }
+
+    @Test
+    void validSettingsLoadWithDefaults() {
+        AppConfig config = AppConfig.load(validEnv(), new Properties());
+
+        assertThat(config.deployed(), is(false));
+        assertThat(config.dbUrl(), is("jdbc:postgresql://localhost:5432/candidates"));
+        assertThat(config.poolMaxSize(), is(10));
+        assertThat(config.poolMinIdle(), is(2));
+        assertThat(config.hashTimeoutMs(), is(5000L));
+        assertThat(config.categoryMaskCheckMinutes(), is(60L));
+        assertThat(config.resetLegacySchema(), is(false));
+        assertThat(config.toString(), not(containsString(SECRET)));
+    }
+
+    @Test
+    void environmentWinsOverTheConfigFile() {
+        Properties file = new Properties();
+        file.setProperty("DB_POOL_MAX_SIZE", "5");
+        file.setProperty("ISSUER", "from-file");
+        Map<String, String> env = validEnv();
+        env.put("DB_POOL_MAX_SIZE", "20");
+
+        AppConfig config = AppConfig.load(env, file);
+
+        assertThat(config.poolMaxSize(), is(20));
+        assertThat(config.issuer(), is("dat"));
+    }
+
+    @Test
+    void missingKeysAreAllReportedAtOnce() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AppConfig.load(Map.of(), new Properties()));
+
+        assertThat(e.getMessage(), containsString("DB_NAME is not set"));
+        assertThat(e.getMessage(), containsString("ISSUER is not set"));
+        assertThat(e.getMessage(), containsString("TOKEN_EXPIRE_TIME is not set"));
+        assertThat(e.getMessage(), containsString("SECRET_KEY is not set"));
+    }
+
+    @Test
+    void deployedRequiresTheConnectionSettings() {
+        Map<String, String> env = validEnv();
+        env.put("DEPLOYED", "true");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AppConfig.load(env, new Properties()));
+
+        assertThat(e.getMessage(), containsString("CONNECTION_STR is not set"));
+        assertThat(e.getMessage(), containsString("DB_USERNAME is not set"));
+        assertThat(e.getMessage(), containsString("DB_PASSWORD is not set"));
+    }
+
+    @Test
+    void shortSecretIsRejected() {
+        Map<String, String> env = validEnv();
+        env.put("SECRET_KEY", "too-short");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AppConfig.load(env, new Properties()));
+
+        assertThat(e.getMessage(), containsString("SECRET_KEY must be at least 32 characters"));
+    }
+
+    @Test
+    void minIdleAboveMaxSizeIsRejected() {
+        Map<String, String> env = validEnv();
+        env.put("DB_POOL_MAX_SIZE", "4");
+        env.put("DB_POOL_MIN_IDLE", "5");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AppConfig.load(env, new Properties()));
+
+        assertThat(e.getMessage(), containsString("DB_POOL_MIN_IDLE must not exceed DB_POOL_MAX_SIZE"));
+    }
+
+    @Test
+    void malformedNumbersAreRejected() {
+        Map<String, String> env = validEnv();
+        env.put("DB_POOL_MAX_SIZE", "ten");
+        env.put("TOKEN_EXPIRE_TIME", "1h");
+        env.put("ACCESS_LOG_SAMPLE_RATE", "1.5");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AppConfig.load(env, new Properties()));
+
+        assertThat(e.getMessage(), containsString("DB_POOL_MAX_SIZE must be a whole number"));
+        assertThat(e.getMessage(), containsString("TOKEN_EXPIRE_TIME must be a whole number of milliseconds"));
+        assertThat(e.getMessage(), containsString("ACCESS_LOG_SAMPLE_RATE must be between 0 and 1"));
+    }
+}
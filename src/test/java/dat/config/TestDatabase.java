@@ -0,0 +1,23 @@
+package dat.config;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Purpose: The Testcontainers EMF, seeded once per test JVM by Populate and never closed, so every DAO
+ * test class sees the same data (the DAO singletons keep the first EMF they were given). Tests delete
+ * whatever they create beyond the seed.
+ */
+public final class TestDatabase {
+
+    private static EntityManagerFactory emf;
+
+    private TestDatabase() { }
+
+    public static synchronized EntityManagerFactory seeded() {
+        if (emf == null) {
+            emf = HibernateConfig.getEntityManagerFactoryForTest();
+            new Populate().seed(emf);
+        }
+        return emf;
+    }
+}
@@ -0,0 +1,46 @@
+package dat.controllers.impl;
+
+import dat.dtos.SkillDTO;
+import dat.entities.SkillCategory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CandidateControllerTest {
+
+    private static final List<SkillDTO> SKILLS = List.of(
+            new SkillDTO(4, "Java", SkillCategory.PROG_LANG, null),
+            new SkillDTO(7, "4", SkillCategory.FRAMEWORK, null),
+            new SkillDTO(9, null, SkillCategory.DB, null));
+
+    @Test
+    void referencesResolveByNameOrId() {
+        assertThat(CandidateController.resolveSkills(List.of(" java ", "9"), SKILLS), contains(4, 9));
+    }
+
+    // The skill named "4" is not the skill with id 4
+    @Test
+    void aNameWinsOverAnEqualId() {
+        assertThat(CandidateController.resolveSkills(List.of("4"), SKILLS), contains(7));
+        assertThat(CandidateController.resolveSkills(List.of("7", "Java"), SKILLS), contains(7, 4));
+    }
+
+    @Test
+    void unknownReferencesAreRejected() {
+        for (String reference : Arrays.asList("5", "Kotlin", "-4", "99999999999", "", null)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> CandidateController.resolveSkills(Arrays.asList("Java", reference), SKILLS));
+            assertThat(e.getMessage(), is("Unknown skill: " + reference));
+        }
+    }
+
+    @Test
+    void noReferencesResolveToNoSkills() {
+        assertThat(CandidateController.resolveSkills(null, SKILLS), is(empty()));
+    }
+}
@@ -0,0 +1,432 @@
+package dat.daos;
+
+import dat.config.TestDatabase;
+import dat.daos.impl.CandidateDAO;
+import dat.daos.impl.SkillDAO;
+import dat.dtos.CandidateDTO;
+import dat.dtos.LinkResultDTO;
+import dat.dtos.PageDTO;
+import dat.dtos.SkillDTO;
+import dat.entities.SkillCategory;
+import dat.index.CandidateSkillIndex;
+import dat.utils.Cursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static java.util.stream.Collectors.toSet;
+
+class CandidateDAOTest {
+
+    private static EntityManagerFactory emf;
+    private static CandidateDAO dao;
+    private static Statistics statistics;
+    private static final AtomicInteger phones = new AtomicInteger(90_000_000); // unique phones for temporary candidates
+    private final List<Integer> temporary = new ArrayList<>(); // candidates a test created, deleted after it
+
+    @BeforeAll
+    static void setUp() {
+        emf = TestDatabase.seeded();
+        dao = CandidateDAO.getInstance(emf);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics.clear();
+    }
+
+    @AfterEach
+    void deleteTemporaryCandidates() {
+        temporary.forEach(dao::delete);
+        temporary.clear();
+    }
+
+    @Test
+    void readAll_loadsCandidatesAndSkillsInOneStatement() {
+        List<CandidateDTO> candidates = dao.readAll();
+
+        assertThat(candidates, hasSize(3));
+        candidates.forEach(c -> assertThat(c.getSkills(), hasSize(4)));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+    }
+
+    @Test
+    void readAllByCategory_loadsAllSkillsOfMatchingCandidatesInOneStatement() {
+        List<CandidateDTO> candidates = dao.readAllByCategory(SkillCategory.DEVOPS);
+
+        assertThat(candidates, hasSize(1));
+        assertThat(candidates.get(0).getName(), is("Bob Boesen"));
+        assertThat(candidates.get(0).getSkills(), hasSize(4));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+    }
+
+    @Test
+    void read_loadsCandidateAndSkillsInOneStatement() {
+        Integer id = dao.readAll().get(0).getId();
+        statistics.clear();
+
+        CandidateDTO candidate = dao.read(id);
+
+        assertThat(candidate.getSkills(), hasSize(4));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+    }
+
+    @Test
+    void readPage_followsCursorUntilLastPage() {
+        PageDTO<CandidateDTO> first = dao.readPage(null, 2);
+        assertThat(first.getItems().stream().map(CandidateDTO::getName).toList(),
+                contains("Alice Andersen", "Bob Boesen"));
+        assertThat(first.getNext(), notNullValue());
+
+        PageDTO<CandidateDTO> second = dao.readPage(Cursor.decode(first.getNext()), 2);
+        assertThat(second.getItems().stream().map(CandidateDTO::getName).toList(),
+                contains("Clara Carlsen"));
+        assertThat(second.getItems().get(0).getSkills(), hasSize(4));
+        assertThat(second.getNext(), nullValue());
+    }
+
+    // A link and an unlink of the same pair racing each other must leave the index equal to the table
+    @Test
+    void concurrentLinkAndUnlink_leaveIndexMatchingTheDatabase() throws Exception {
+        int alice = dao.readAll().get(0).getId();
+        int docker = skillId("Docker");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 50; round++) {
+                Future<?> link = pool.submit(() -> dao.linkSkill(alice, docker));
+                Future<?> unlink = pool.submit(() -> dao.unlinkSkill(alice, docker));
+                link.get();
+                unlink.get();
+
+                boolean inDatabase = dao.read(alice).getSkills().stream().anyMatch(s -> s.getId() == docker);
+                boolean inIndex = CandidateSkillIndex.getInstance().withAnySkill(List.of(docker)).get(alice);
+                assertThat("round " + round, inIndex, is(inDatabase));
+            }
+        } finally {
+            pool.shutdown();
+            dao.unlinkSkill(alice, docker);
+        }
+    }
+
+    private static int skillId(String name) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT s.id FROM Skill s WHERE s.name = :name", Integer.class)
+                    .setParameter("name", name).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void assignSkills_addKeepsExistingLinksAndSkipsDuplicatePairs() {
+        int c = temporaryCandidate("Add");
+        int java = skillId("Java"), docker = skillId("Docker"), junit = skillId("JUnit");
+
+        LinkResultDTO first = dao.assignSkills(Map.of(c, List.of(java, docker)), false);
+        LinkResultDTO second = dao.assignSkills(Map.of(c, List.of(docker, junit, junit)), false);
+
+        assertThat(first.getLinked(), is(2));
+        assertThat(second.isApplied(), is(true));
+        assertThat(second.getLinked(), is(1)); // docker was linked already, junit is listed twice
+        assertThat(second.getUnlinked(), is(0));
+        assertThat(skillNames(c), is(Set.of("Java", "Docker", "JUnit")));
+        assertThat(CandidateSkillIndex.getInstance().withAllSkills(List.of(java, docker, junit)).get(c), is(true));
+    }
+
+    @Test
+    void assignSkills_replaceMakesTheListTheExactSkillSet() {
+        int c = temporaryCandidate("Replace");
+        int java = skillId("Java"), docker = skillId("Docker"), pandas = skillId("Pandas");
+        dao.assignSkills(Map.of(c, List.of(java, docker)), false);
+
+        LinkResultDTO replaced = dao.assignSkills(Map.of(c, List.of(docker, pandas)), true);
+
+        assertThat(replaced.getLinked(), is(1));
+        assertThat(replaced.getUnlinked(), is(1));
+        assertThat(skillNames(c), is(Set.of("Docker", "Pandas")));
+        assertThat(CandidateSkillIndex.getInstance().withAnySkill(List.of(java)).get(c), is(false));
+    }
+
+    @Test
+    void assignSkills_replaceWithAnEmptyListRemovesEverySkill() {
+        int c = temporaryCandidate("Empty");
+        int java = skillId("Java"), docker = skillId("Docker");
+        dao.assignSkills(Map.of(c, List.of(java, docker)), false);
+
+        LinkResultDTO replaced = dao.assignSkills(Map.of(c, List.of()), true);
+
+        assertThat(replaced.isApplied(), is(true));
+        assertThat(replaced.getLinked(), is(0));
+        assertThat(replaced.getUnlinked(), is(2));
+        assertThat(skillNames(c), empty());
+        assertThat(CandidateSkillIndex.getInstance().withAnySkill(List.of(java, docker)).get(c), is(false));
+    }
+
+    @Test
+    void assignSkills_unknownIdsRollBackTheWholeCall() {
+        int c = temporaryCandidate("Unknown");
+        int java = skillId("Java"), docker = skillId("Docker");
+        dao.assignSkills(Map.of(c, List.of(java)), false);
+
+        Map<Integer, List<Integer>> request = new HashMap<>();
+        request.put(c, List.of(docker, -1));           // replace would unlink java; -1 is no skill
+        request.put(Integer.MAX_VALUE, List.of(java)); // no such candidate
+        LinkResultDTO result = dao.assignSkills(request, true);
+
+        assertThat(result.isApplied(), is(false));
+        assertThat(result.getUnknownCandidates(), contains(Integer.MAX_VALUE));
+        assertThat(result.getUnknownSkills(), contains(-1));
+        assertThat(result.getLinked(), is(0));
+        assertThat(result.getUnlinked(), is(0));
+        assertThat(skillNames(c), is(Set.of("Java")));
+    }
+
+    // Link ids come from whole sequence blocks (allocationSize 50), not one block per row
+    @Test
+    void assignSkills_takesLinkIdsFromWholeSequenceBlocks() {
+        List<Integer> skills = allSkillIds();
+        Map<Integer, List<Integer>> request = new HashMap<>();
+        for (int i = 0; i < 3; i++) request.put(temporaryCandidate("Block " + i), skills);
+        int pairs = 3 * skills.size();
+
+        LinkResultDTO result = dao.assignSkills(request, false);
+
+        assertThat(result.getLinked(), is(pairs));
+        List<Integer> ids = linkIds(request.keySet());
+        Set<Integer> blocks = ids.stream().map(id -> (id - 1) / 50).collect(toSet());
+        assertThat(ids, hasSize(pairs));
+        assertThat(blocks, hasSize((pairs + 49) / 50));
+
+        // Hibernate's own pooled-lo blocks do not collide with the reserved ones
+        int extra = temporaryCandidate("After");
+        dao.linkSkill(extra, skills.get(0));
+        assertThat(skillNames(extra), hasSize(1));
+    }
+
+    // 600 candidates with two skills each are 1200 rows, more than one fetch block of the export cursor
+    @Test
+    void exportAll_streamsEveryCandidateInIdOrderAcrossFetchBlocks() {
+        List<SkillDTO> skills = List.of(skill("Java"), skill("Docker"));
+        List<CandidateDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 600; i++)
+            rows.add(new CandidateDTO(null, "Exported " + i, String.valueOf(phones.incrementAndGet()), "Test", skills));
+        List<String> errors = dao.importBatch(rows, SkillDAO.getInstance(emf).readAll());
+        assertThat(errors.stream().filter(e -> e != null).toList(), is(empty()));
+
+        List<CandidateDTO> exported = new ArrayList<>();
+        dao.exportAll(exported::add);
+        Set<String> importedPhones = rows.stream().map(CandidateDTO::getPhone).collect(toSet());
+        exported.stream().filter(c -> importedPhones.contains(c.getPhone())).forEach(c -> temporary.add(c.getId()));
+
+        assertThat(temporary, hasSize(600));
+        List<Integer> ids = exported.stream().map(CandidateDTO::getId).toList();
+        assertThat(ids, is(ids.stream().sorted().toList()));
+        assertThat(ids, hasSize((int) ids.stream().distinct().count()));
+        Map<Integer, CandidateDTO> byId = new HashMap<>();
+        dao.readAll().forEach(c -> byId.put(c.getId(), c));
+        assertThat(Set.copyOf(ids), is(byId.keySet()));
+        for (CandidateDTO c : exported) {
+            Set<Integer> exportedSkills = c.getSkills().stream().map(SkillDTO::getId).collect(toSet());
+            Set<Integer> readSkills = byId.get(c.getId()).getSkills().stream().map(SkillDTO::getId).collect(toSet());
+            assertThat(c.getName(), exportedSkills, is(readSkills));
+        }
+        assertThat(exported.stream().filter(c -> importedPhones.contains(c.getPhone()))
+                .allMatch(c -> c.getSkills().size() == 2), is(true));
+    }
+
+    // A bulk DELETE on the pair (plus the mask update): neither the candidate nor its links are loaded
+    @Test
+    void unlinkSkill_deletesOnlyThatLinkWithoutLoadingEntities() {
+        int c = temporaryCandidate("Unlink", List.of(skill("Java"), skill("Docker")));
+        statistics.clear();
+
+        assertThat(dao.unlinkSkill(c, skillId("Java")), is(true));
+
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+        assertThat(statistics.getCollectionLoadCount(), is(0L));
+        assertThat(skillNames(c), is(Set.of("Docker")));
+        assertThat(hasCategory(c, SkillCategory.PROG_LANG), is(false));
+    }
+
+    @Test
+    void unlinkSkill_missingLinkOrCandidateReturnsFalse() {
+        int c = temporaryCandidate("Unlink missing", List.of(skill("Docker")));
+
+        assertThat(dao.unlinkSkill(c, skillId("Java")), is(false));
+        assertThat(dao.unlinkSkill(Integer.MAX_VALUE, skillId("Docker")), is(false));
+        assertThat(skillNames(c), is(Set.of("Docker")));
+    }
+
+    // Two bulk DELETEs, links first; the candidate and its candidateSkills collection are never loaded
+    @Test
+    void delete_removesTheCandidateAndItsLinksWithoutLoadingThem() {
+        int c = temporaryCandidate("Deleted", List.of(skill("Java"), skill("Docker"), skill("JUnit")));
+        statistics.clear();
+
+        assertThat(dao.delete(c), is(true));
+        temporary.remove(Integer.valueOf(c));
+
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+        assertThat(statistics.getCollectionLoadCount(), is(0L));
+        assertThat(linkCount(c), is(0L));
+        assertThat(dao.read(c), nullValue());
+        assertThat(CandidateSkillIndex.getInstance().withAnySkill(List.of(skillId("Java"))).get(c), is(false));
+    }
+
+    @Test
+    void delete_unknownCandidateReturnsFalse() {
+        assertThat(dao.delete(Integer.MAX_VALUE), is(false));
+    }
+
+    @Test
+    void categoryMasks_seedAndCreateSetTheMaskWithTheInsert() {
+        assertMasksCurrent("seeding");
+        int bob = dao.readAllByCategory(SkillCategory.DATA).get(0).getId();
+        assertThat(hasCategory(bob, SkillCategory.DEVOPS), is(true));
+
+        int c = temporaryCandidate("Created", List.of(skill("Docker"), skill("JUnit")));
+
+        assertMasksCurrent("create");
+        assertThat(hasCategory(c, SkillCategory.DEVOPS), is(true));
+        assertThat(hasCategory(c, SkillCategory.TESTING), is(true));
+        assertThat(hasCategory(c, SkillCategory.DB), is(false));
+    }
+
+    @Test
+    void categoryMasks_importSetsTheMaskWithTheInsert() {
+        String phoneA = String.valueOf(phones.incrementAndGet());
+        String phoneB = String.valueOf(phones.incrementAndGet());
+        List<CandidateDTO> rows = List.of(
+                new CandidateDTO(null, "Imported A", phoneA, "Test", List.of(skill("Pandas"))),
+                new CandidateDTO(null, "Imported B", phoneB, "Test", List.of()));
+
+        List<String> errors = dao.importBatch(rows, SkillDAO.getInstance(emf).readAll());
+
+        assertThat(errors, contains(nullValue(), nullValue()));
+        rows.forEach(row -> temporary.add(candidateIdByPhone(row.getPhone())));
+        assertMasksCurrent("import");
+        assertThat(hasCategory(temporary.get(0), SkillCategory.DATA), is(true));
+    }
+
+    @Test
+    void categoryMasks_linkAndUnlinkKeepTheMaskCurrent() {
+        int c = temporaryCandidate("Links");
+        int java = skillId("Java"), spring = skillId("Spring Boot");
+
+        dao.linkSkill(c, java);
+        assertMasksCurrent("linkSkill");
+        dao.linkSkill(c, spring);
+        dao.unlinkSkill(c, java);
+        assertMasksCurrent("unlinkSkill");
+        assertThat(hasCategory(c, SkillCategory.PROG_LANG), is(false));
+        assertThat(hasCategory(c, SkillCategory.FRAMEWORK), is(true));
+
+        dao.assignSkills(Map.of(c, List.of(java)), false);
+        assertMasksCurrent("assignSkills (add)");
+        dao.assignSkills(Map.of(c, List.of(skillId("Docker"))), true);
+        assertMasksCurrent("assignSkills (replace)");
+        assertThat(hasCategory(c, SkillCategory.DEVOPS), is(true));
+        assertThat(hasCategory(c, SkillCategory.PROG_LANG), is(false));
+    }
+
+    @Test
+    void categoryMasks_skillCategoryChangeAndDeleteRecomputeTheHolders() {
+        SkillDAO skills = SkillDAO.getInstance(emf);
+        SkillDTO created = skills.create(new SkillDTO(null, "Temporary Skill", SkillCategory.TESTING, "Test"));
+        int c = temporaryCandidate("Holder");
+        dao.linkSkill(c, created.getId());
+        try {
+            skills.update(created.getId(), new SkillDTO(null, null, SkillCategory.DATA, null));
+            assertMasksCurrent("a skill category change");
+            assertThat(hasCategory(c, SkillCategory.DATA), is(true));
+            assertThat(hasCategory(c, SkillCategory.TESTING), is(false));
+        } finally {
+            skills.delete(created.getId());
+        }
+        assertMasksCurrent("a skill delete");
+        assertThat(hasCategory(c, SkillCategory.DATA), is(false));
+    }
+
+    private int temporaryCandidate(String name) {
+        return temporaryCandidate(name, List.of());
+    }
+
+    private int temporaryCandidate(String name, List<SkillDTO> skills) {
+        String phone = String.valueOf(phones.incrementAndGet());
+        int id = dao.create(new CandidateDTO(null, "Temporary " + name, phone, "Test", skills)).getId();
+        temporary.add(id);
+        return id;
+    }
+
+    // Every write path must leave candidate.category_mask equal to what the links say
+    private static void assertMasksCurrent(String after) {
+        assertThat("stale category masks after " + after, dao.checkCategoryMasks(false).getStale(), is(0L));
+    }
+
+    private static boolean hasCategory(int candidateId, SkillCategory category) {
+        return dao.readAllByCategories(Set.of(category)).stream().anyMatch(c -> c.getId() == candidateId);
+    }
+
+    private static Set<String> skillNames(int candidateId) {
+        return dao.read(candidateId).getSkills().stream().map(SkillDTO::getName).collect(toSet());
+    }
+
+    private static long linkCount(int candidateId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT count(cs) FROM CandidateSkill cs WHERE cs.candidate.id = :id", Long.class)
+                    .setParameter("id", candidateId).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static SkillDTO skill(String name) {
+        return new SkillDTO(skillId(name), null, null, null);
+    }
+
+    private static int candidateIdByPhone(String phone) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT c.id FROM Candidate c WHERE c.phone = :phone", Integer.class)
+                    .setParameter("phone", phone).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static List<Integer> allSkillIds() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT s.id FROM Skill s ORDER BY s.id", Integer.class).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+
+    private static List<Integer> linkIds(Set<Integer> candidateIds) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("SELECT cs.id FROM CandidateSkill cs WHERE cs.candidate.id IN :ids", Integer.class)
+                    .setParameter("ids", candidateIds).getResultList();
+        } finally {
+            em.close();
+        }
+    }
+}
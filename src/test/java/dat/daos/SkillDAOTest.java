@@ -0,0 +1,205 @@
+package dat.daos;
+
+import dat.config.TestDatabase;
+import dat.daos.impl.CandidateDAO;
+import dat.daos.impl.SkillDAO;
+import dat.dtos.CacheStatsDTO;
+import dat.dtos.PageDTO;
+import dat.dtos.SkillDTO;
+import dat.entities.Skill;
+import dat.entities.SkillCategory;
+import dat.metrics.CacheMetrics;
+import dat.utils.Cursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SkillDAOTest {
+
+    private static EntityManagerFactory emf;
+    private static SkillDAO dao;
+    private static Statistics statistics;
+    private final List<Integer> temporary = new ArrayList<>(); // skills a test created, deleted after it
+
+    @BeforeAll
+    static void setUp() {
+        emf = TestDatabase.seeded();
+        dao = SkillDAO.getInstance(emf);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void deleteTemporarySkills() {
+        temporary.forEach(dao::delete);
+        temporary.clear();
+    }
+
+    // Unnamed skills sort first; "null" is an ordinary name and must not be confused with them
+    @Test
+    void readPage_visitsEverySkillOnceIncludingUnnamedOnes() {
+        int unnamedA = temporarySkill(null);
+        int unnamedB = temporarySkill(null);
+        int literalNull = temporarySkill("null");
+        int twinA = temporarySkill("Twin");
+        int twinB = temporarySkill("Twin");
+
+        List<Integer> all = ids(dao.readPage(null, 1000).getItems());
+        assertThat(all.subList(0, 2), contains(unnamedA, unnamedB));
+
+        List<Integer> paged = new ArrayList<>();
+        Cursor after = null;
+        do {
+            PageDTO<SkillDTO> page = dao.readPage(after, 2);
+            paged.addAll(ids(page.getItems()));
+            after = Cursor.decode(page.getNext());
+        } while (after != null);
+
+        assertThat(paged, is(all));
+        assertThat(new HashSet<>(paged).size(), is(paged.size()));
+        assertThat(paged, hasItems(literalNull, twinA, twinB));
+        assertThat(paged.indexOf(twinB), is(paged.indexOf(twinA) + 1));
+    }
+
+    @Test
+    void readPage_cursorAfterAnUnnamedSkillContinuesWithTheNextOne() {
+        int unnamedA = temporarySkill(null);
+        int unnamedB = temporarySkill(null);
+
+        PageDTO<SkillDTO> first = dao.readPage(null, 1);
+        assertThat(ids(first.getItems()), contains(unnamedA));
+
+        PageDTO<SkillDTO> second = dao.readPage(Cursor.decode(first.getNext()), 1);
+        assertThat(ids(second.getItems()), contains(unnamedB));
+    }
+
+    // --- delete ---
+
+    // The holders' masks are recomputed in SQL and the links removed in one bulk DELETE; nothing is loaded
+    @Test
+    void delete_removesTheSkillAndItsLinksWithoutLoadingThem() {
+        int skill = temporarySkill("Held");
+        CandidateDAO candidates = CandidateDAO.getInstance(emf);
+        int candidate = candidates.readAll().get(0).getId();
+        candidates.linkSkill(candidate, skill);
+        statistics.clear();
+
+        assertThat(dao.delete(skill), is(true));
+        temporary.remove(Integer.valueOf(skill));
+
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+        assertThat(statistics.getCollectionLoadCount(), is(0L));
+        assertThat(ids(candidates.read(candidate).getSkills()), not(hasItem(skill)));
+        assertThat(candidates.checkCategoryMasks(false).getStale(), is(0L));
+        assertThat(dao.read(skill), nullValue());
+    }
+
+    @Test
+    void delete_unknownSkillReturnsFalse() {
+        assertThat(dao.delete(Integer.MAX_VALUE), is(false));
+    }
+
+    // --- second-level cache ---
+
+    @Test
+    void read_secondReadIsServedFromTheSkillRegion() {
+        int id = temporarySkill("Cached");
+        emf.getCache().evict(Skill.class);
+        statistics.clear();
+
+        dao.read(id);
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+        assertThat(emf.getCache().contains(Skill.class, id), is(true));
+
+        SkillDTO again = dao.read(id);
+        assertThat(again.getName(), is("Cached"));
+        assertThat(statistics.getPrepareStatementCount(), is(1L));
+        assertThat(statistics.getCacheRegionStatistics(Skill.CACHE_REGION).getHitCount(), is(1L));
+    }
+
+    @Test
+    void update_replacesTheCachedSkill() {
+        int id = temporarySkill("Before");
+        dao.read(id);
+
+        dao.update(id, new SkillDTO(null, "After", SkillCategory.DATA, null));
+
+        SkillDTO read = dao.read(id);
+        assertThat(read.getName(), is("After"));
+        assertThat(read.getCategory(), is(SkillCategory.DATA));
+    }
+
+    @Test
+    void readAll_isCachedUntilTheSkillTableChanges() {
+        dao.readAll();
+        statistics.clear();
+
+        dao.readAll();
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+
+        int created = temporarySkill("New");
+        assertThat(ids(dao.readAll()), hasItem(created));
+
+        dao.delete(created);
+        temporary.remove(Integer.valueOf(created));
+        assertThat(ids(dao.readAll()), not(hasItem(created)));
+    }
+
+    // The category_mask updates name only the candidate table as touched, so linking keeps the skill caches
+    @Test
+    void linkingASkillLeavesTheSkillQueryCacheAlone() {
+        int skill = temporarySkill("Linked");
+        CandidateDAO candidates = CandidateDAO.getInstance(emf);
+        int candidate = candidates.readAll().get(0).getId();
+        dao.readAll();
+
+        candidates.linkSkill(candidate, skill);
+        statistics.clear();
+
+        dao.readAll();
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+    }
+
+    // /admin/cache reads JCache's statistics, which count whether or not Hibernate statistics are on
+    @Test
+    void cacheMetricsCountTheSkillRegionHits() {
+        int id = temporarySkill("Counted");
+        dao.read(id);
+        CacheStatsDTO before = skillRegion();
+
+        dao.read(id);
+        dao.read(id);
+
+        CacheStatsDTO after = skillRegion();
+        assertThat(after.getHits() - before.getHits(), is(2L));
+        assertThat(after.getMisses(), is(before.getMisses()));
+        assertThat(after.getElementsInMemory(), greaterThan(0L));
+    }
+
+    private static CacheStatsDTO skillRegion() {
+        return CacheMetrics.snapshot().stream()
+                .filter(stats -> stats.getRegion().equals(Skill.CACHE_REGION))
+                .findFirst().orElseThrow();
+    }
+
+    private int temporarySkill(String name) {
+        int id = dao.create(new SkillDTO(null, name, SkillCategory.TESTING, "Paging test")).getId();
+        temporary.add(id);
+        return id;
+    }
+
+    private static List<Integer> ids(List<SkillDTO> skills) {
+        return skills.stream().map(SkillDTO::getId).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package dat.index;
+
+import dat.entities.SkillCategory;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CandidateMatcherTest {
+
+    private static final int SKILLS = 300;
+
+    @Test
+    void sequentialPath_matchesBruteForce() {
+        CandidateSkillIndex.Snapshot snapshot = snapshot(5_000, 1);
+        for (MatchQuery query : queries(snapshot, 20)) {
+            assertThat(CandidateMatcher.topK(snapshot, query), is(bruteForce(snapshot, query)));
+        }
+    }
+
+    // Above PARALLEL_THRESHOLD the snapshot is scored in fork-join slices whose heaps are merged
+    @Test
+    void forkJoinPath_matchesBruteForce() {
+        CandidateSkillIndex.Snapshot snapshot = snapshot(120_000, 2);
+        for (MatchQuery query : queries(snapshot, 5)) {
+            assertThat(CandidateMatcher.topK(snapshot, query), is(bruteForce(snapshot, query)));
+        }
+    }
+
+    @Test
+    void requireAll_keepsOnlyCandidatesWithEveryRequiredSkill() {
+        CandidateSkillIndex.Snapshot snapshot = snapshot(5_000, 3);
+        MatchQuery query = new MatchQuery(Set.of(1, 2), Set.of(3), Map.of(), true, 1_000);
+
+        List<CandidateMatcher.Match> matches = CandidateMatcher.topK(snapshot, query);
+
+        assertThat(matches, not(empty()));
+        matches.forEach(m -> assertThat(m.requiredMatched(), is(2)));
+        assertThat(matches, is(bruteForce(snapshot, query)));
+    }
+
+    @Test
+    void candidatesWithoutAnyQuerySkillAreLeftOut() {
+        Map<Integer, SkillCategory> categories = Map.of(1, SkillCategory.DB, 2, SkillCategory.DEVOPS);
+        CandidateSkillIndex.Snapshot snapshot = new CandidateSkillIndex.Snapshot(
+                new int[]{7, 8}, new long[][]{bits(1), bits(2)}, categories);
+
+        List<CandidateMatcher.Match> matches = CandidateMatcher.topK(snapshot,
+                new MatchQuery(Set.of(1), Set.of(), Map.of(), false, 10));
+
+        assertThat(matches, contains(new CandidateMatcher.Match(7, 1.0, 1, 0)));
+    }
+
+    // Scores every candidate and sorts all of them: the definition topK has to agree with
+    static List<CandidateMatcher.Match> bruteForce(CandidateSkillIndex.Snapshot snapshot, MatchQuery query) {
+        List<CandidateMatcher.Match> all = new ArrayList<>();
+        for (int i = 0; i < snapshot.candidateIds().length; i++) {
+            BitSet held = BitSet.valueOf(snapshot.skills()[i]);
+            int required = 0, optional = 0;
+            double score = 0;
+            for (int skill : query.required()) {
+                if (!held.get(skill)) continue;
+                required++;
+                score += weight(snapshot, query, skill);
+            }
+            for (int skill : query.optional()) {
+                if (query.required().contains(skill) || !held.get(skill)) continue;
+                optional++;
+                score += weight(snapshot, query, skill) * CandidateMatcher.OPTIONAL_WEIGHT;
+            }
+            if (query.requireAll() && required < query.required().size()) continue;
+            if (required + optional == 0) continue;
+            all.add(new CandidateMatcher.Match(snapshot.candidateIds()[i], score, required, optional));
+        }
+        all.sort(Comparator.comparingDouble(CandidateMatcher.Match::score).reversed()
+                .thenComparingInt(CandidateMatcher.Match::candidateId));
+        return all.subList(0, Math.min(query.limit(), all.size()));
+    }
+
+    private static double weight(CandidateSkillIndex.Snapshot snapshot, MatchQuery query, int skill) {
+        SkillCategory category = snapshot.categoryBySkill().get(skill);
+        return category == null ? 0 : query.weights().getOrDefault(category, 1.0);
+    }
+
+    // Weights are powers of two so that any summation order gives the exact same double
+    private static List<MatchQuery> queries(CandidateSkillIndex.Snapshot snapshot, int count) {
+        Random random = new Random(7);
+        List<MatchQuery> queries = new ArrayList<>();
+        for (int q = 0; q < count; q++) {
+            Set<Integer> required = randomSkills(random, 1 + random.nextInt(4));
+            Set<Integer> optional = randomSkills(random, random.nextInt(5));
+            Map<SkillCategory, Double> weights = new EnumMap<>(SkillCategory.class);
+            for (SkillCategory category : SkillCategory.values()) {
+                if (random.nextBoolean()) weights.put(category, Math.scalb(1.0, random.nextInt(5) - 2));
+            }
+            queries.add(new MatchQuery(required, optional, weights, random.nextInt(4) == 0, 1 + random.nextInt(100)));
+        }
+        return queries;
+    }
+
+    private static Set<Integer> randomSkills(Random random, int count) {
+        Set<Integer> skills = new HashSet<>();
+        while (skills.size() < count) skills.add(random.nextInt(SKILLS));
+        return skills;
+    }
+
+    // Candidate ids are shuffled so that the tie-break on id is actually exercised across slices
+    static CandidateSkillIndex.Snapshot snapshot(int candidates, long seed) {
+        Random random = new Random(seed);
+        Map<Integer, SkillCategory> categories = new HashMap<>();
+        SkillCategory[] values = SkillCategory.values();
+        for (int skill = 0; skill < SKILLS; skill++) categories.put(skill, values[skill % values.length]);
+
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= candidates; id++) ids.add(id);
+        Collections.shuffle(ids, random);
+
+        int[] candidateIds = new int[candidates];
+        long[][] skills = new long[candidates][];
+        for (int i = 0; i < candidates; i++) {
+            BitSet held = new BitSet();
+            for (int n = 2 + random.nextInt(10); n > 0; n--) held.set(random.nextInt(SKILLS));
+            candidateIds[i] = ids.get(i);
+            skills[i] = held.toLongArray();
+        }
+        return new CandidateSkillIndex.Snapshot(candidateIds, skills, categories);
+    }
+
+    private static long[] bits(int... skills) {
+        BitSet set = new BitSet();
+        for (int skill : skills) set.set(skill);
+        return set.toLongArray();
+    }
+}
@@ -0,0 +1,112 @@
+package dat.index;
+
+import dat.entities.SkillCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class CandidateSkillIndexTest {
+
+    private static final int JAVA = 1, SQL = 2, DOCKER = 3, REACT = 4;
+
+    private CandidateSkillIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CandidateSkillIndex();
+        index.putSkill(JAVA, SkillCategory.PROG_LANG);
+        index.putSkill(SQL, SkillCategory.DB);
+        index.putSkill(DOCKER, SkillCategory.DEVOPS);
+        index.putSkill(REACT, SkillCategory.FRONTEND);
+        index.putCandidate(10, List.of(JAVA, SQL));
+        index.putCandidate(11, List.of(JAVA, DOCKER));
+        index.putCandidate(12, List.of(REACT));
+    }
+
+    @Test
+    void categoriesFollowTheSkillsHeld() {
+        assertThat(ids(index.withCategory(SkillCategory.PROG_LANG)), contains(10, 11));
+        assertThat(ids(index.withCategory(SkillCategory.DEVOPS)), contains(11));
+        assertThat(ids(index.withCategory(SkillCategory.DATA)), empty());
+    }
+
+    @Test
+    void allSkillsIsAndAnySkillIsOr() {
+        assertThat(ids(index.withAllSkills(List.of(JAVA, SQL))), contains(10));
+        assertThat(ids(index.withAnySkill(List.of(SQL, REACT))), contains(10, 12));
+        assertThat(ids(index.withAllSkills(List.of())), empty());
+        assertThat(ids(index.withAllSkills(List.of(JAVA, 99))), empty());
+    }
+
+    @Test
+    void queriesReturnCopies() {
+        index.withCategory(SkillCategory.PROG_LANG).clear();
+        index.withAnySkill(List.of(JAVA)).clear();
+
+        assertThat(ids(index.withCategory(SkillCategory.PROG_LANG)), contains(10, 11));
+        assertThat(index.holderCount(JAVA), is(2));
+    }
+
+    @Test
+    void apply_replacesSkillSetsAndDropsMissingCandidates() {
+        index.apply(List.of(10, 12), Map.of(10, List.of(DOCKER)));
+
+        assertThat(ids(index.withAnySkill(List.of(JAVA))), contains(11));
+        assertThat(ids(index.withCategory(SkillCategory.DB)), empty());
+        assertThat(ids(index.withCategory(SkillCategory.DEVOPS)), contains(10, 11));
+        assertThat(ids(index.withCategory(SkillCategory.FRONTEND)), empty());
+        assertThat(index.holderCount(REACT), is(0));
+        assertThat(index.similarTo(12, 5), nullValue());
+    }
+
+    // The index must end in the state of the last apply, whatever it held before: a stale link can't survive
+    @Test
+    void apply_isIdempotentAndLastWriteWins() {
+        index.apply(List.of(11), Map.of(11, List.of(JAVA, DOCKER, SQL)));
+        index.apply(List.of(11), Map.of(11, List.of(JAVA)));
+        index.apply(List.of(11), Map.of(11, List.of(JAVA)));
+
+        assertThat(ids(index.withAnySkill(List.of(DOCKER, SQL))), contains(10));
+        assertThat(ids(index.withCategory(SkillCategory.DEVOPS)), empty());
+    }
+
+    @Test
+    void changingASkillsCategoryMovesItsHolders() {
+        index.putSkill(SQL, SkillCategory.DATA);
+
+        assertThat(ids(index.withCategory(SkillCategory.DB)), empty());
+        assertThat(ids(index.withCategory(SkillCategory.DATA)), contains(10));
+    }
+
+    @Test
+    void removingASkillUnlinksIt() {
+        index.removeSkill(JAVA);
+
+        assertThat(index.holderCount(JAVA), is(0));
+        assertThat(ids(index.withCategory(SkillCategory.PROG_LANG)), empty());
+        assertThat(ids(index.withCategory(SkillCategory.DEVOPS)), contains(11));
+    }
+
+    @Test
+    void snapshotIsRebuiltAfterAWrite() {
+        CandidateSkillIndex.Snapshot before = index.snapshot();
+        assertThat(index.snapshot(), sameInstance(before));
+
+        index.removeCandidate(12);
+        CandidateSkillIndex.Snapshot after = index.snapshot();
+
+        assertThat(after, not(sameInstance(before)));
+        assertThat(after.candidateIds().length, is(2));
+        assertThat(after.categoryBySkill(), hasEntry(DOCKER, SkillCategory.DEVOPS));
+    }
+
+    private static List<Integer> ids(BitSet bits) {
+        return bits.stream().boxed().toList();
+    }
+}
@@ -0,0 +1,101 @@
+package dat.index;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SimilarityIndexTest {
+
+    private static final int CANDIDATES = 3000;
+    private static final int CLUSTERS = 30;
+    private static final int SKILLS = 400;
+    private static final int CORE_SKILLS = 12;
+    private static final int K = 10;
+
+    private static final Map<Integer, BitSet> skills = new HashMap<>();
+    private static final SimilarityIndex index = new SimilarityIndex();
+
+    // Synthetic profiles: each cluster shares a core skill set, every candidate keeps most of its
+    // cluster's core and picks up a few random skills, which is roughly what real skill sets look like
+    @BeforeAll
+    static void setUp() {
+        Random random = new Random(42);
+        List<int[]> cores = new ArrayList<>();
+        for (int c = 0; c < CLUSTERS; c++) {
+            cores.add(random.ints(0, SKILLS).distinct().limit(CORE_SKILLS).toArray());
+        }
+        for (int id = 1; id <= CANDIDATES; id++) {
+            BitSet set = new BitSet();
+            for (int skill : cores.get(id % CLUSTERS)) {
+                if (random.nextDouble() < 0.8) set.set(skill);
+            }
+            for (int n = random.nextInt(4); n > 0; n--) set.set(random.nextInt(SKILLS));
+            skills.put(id, set);
+            index.put(id, set);
+        }
+    }
+
+    // A returned neighbour counts as a hit when its true Jaccard is at least the k-th best brute-force value
+    @Test
+    void similarTo_recallAgainstBruteForce() {
+        int hits = 0;
+        int expected = 0;
+        for (int query = 1; query <= 200; query++) {
+            double kthBest = bruteForce(query).get(K - 1);
+            for (SimilarityIndex.Similar similar : index.similarTo(query, K)) {
+                if (similar.similarity() >= kthBest) hits++;
+            }
+            expected += K;
+        }
+        double recall = (double) hits / expected;
+        assertThat(recall, greaterThanOrEqualTo(0.8));
+    }
+
+    @Test
+    void similarTo_isBestFirstWithExactScores() {
+        List<SimilarityIndex.Similar> result = index.similarTo(7, K);
+
+        assertThat(result, hasSize(K));
+        for (int i = 0; i < result.size(); i++) {
+            SimilarityIndex.Similar similar = result.get(i);
+            assertThat(similar.candidateId(), not(7));
+            assertThat(similar.similarity(), closeTo(SimilarityIndex.jaccard(skills.get(7), skills.get(similar.candidateId())), 1e-9));
+            if (i > 0) assertThat(similar.similarity(), lessThanOrEqualTo(result.get(i - 1).similarity()));
+        }
+    }
+
+    @Test
+    void put_replacesAndRemoveForgets() {
+        SimilarityIndex small = new SimilarityIndex();
+        small.put(1, bits(1, 2, 3));
+        small.put(2, bits(1, 2, 3));
+        small.put(3, bits(50, 51));
+        assertThat(small.similarTo(1, 5).get(0), is(new SimilarityIndex.Similar(2, 1.0)));
+
+        small.put(2, bits(50, 51));
+        assertThat(small.similarTo(1, 5), empty());
+        assertThat(small.similarTo(3, 5).get(0).candidateId(), is(2));
+
+        small.remove(2);
+        assertThat(small.similarTo(3, 5), empty());
+    }
+
+    private static List<Double> bruteForce(int query) {
+        List<Double> scores = new ArrayList<>();
+        skills.forEach((id, set) -> {
+            if (id != query) scores.add(SimilarityIndex.jaccard(skills.get(query), set));
+        });
+        scores.sort(Comparator.reverseOrder());
+        return scores;
+    }
+
+    private static BitSet bits(int... values) {
+        BitSet bits = new BitSet();
+        for (int v : values) bits.set(v);
+        return bits;
+    }
+}
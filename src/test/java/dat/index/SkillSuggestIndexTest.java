@@ -0,0 +1,83 @@
+package dat.index;
+
+import dat.dtos.SkillDTO;
+import dat.entities.SkillCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class SkillSuggestIndexTest {
+
+    private static final int JAVA = 1, JAVASCRIPT = 2, POSTGRES = 3, REACT = 4, CAFE = 5;
+
+    private CandidateSkillIndex holders;
+    private SkillSuggestIndex suggest;
+
+    @BeforeEach
+    void setUp() {
+        holders = new CandidateSkillIndex();
+        suggest = new SkillSuggestIndex(holders);
+        suggest.rebuild(List.of(
+                new SkillDTO(JAVA, "Java", SkillCategory.PROG_LANG, "Backend language on the JVM"),
+                new SkillDTO(JAVASCRIPT, "JavaScript", SkillCategory.PROG_LANG, "Language of the browser"),
+                new SkillDTO(POSTGRES, "PostgreSQL", SkillCategory.DB, "Relational database, used from Java"),
+                new SkillDTO(REACT, "React", SkillCategory.FRONTEND, "Component library for JavaScript"),
+                new SkillDTO(CAFE, "Caf\u00e9 Scripting", SkillCategory.DATA, null)));
+    }
+
+    @Test
+    void prefixMatchesNamesBeforeDescriptions() {
+        // Java and JavaScript by name, PostgreSQL and React only through their descriptions
+        assertThat(names(suggest.suggest("jav", 10)), contains("Java", "JavaScript", "PostgreSQL", "React"));
+        assertThat(names(suggest.suggest("  POST ", 10)), contains("PostgreSQL"));
+        assertThat(names(suggest.suggest("xyz", 10)), empty());
+        assertThat(names(suggest.suggest("   ", 10)), empty());
+    }
+
+    @Test
+    void everyWordOfTheNameIsAPrefixKey() {
+        assertThat(names(suggest.suggest("script", 10)), contains("Caf\u00e9 Scripting"));
+    }
+
+    @Test
+    void accentsAreIgnoredOnBothSides() {
+        assertThat(names(suggest.suggest("cafe", 10)), contains("Caf\u00e9 Scripting"));
+        assertThat(names(suggest.suggest("CAF\u00c9", 10)), contains("Caf\u00e9 Scripting"));
+        assertThat(names(suggest.suggest("r\u00e9ac", 10)), contains("React"));
+        assertThat(SkillSuggestIndex.normalize("Cr\u00e8me Br\u00fbl\u00e9e"), is("creme brulee"));
+    }
+
+    @Test
+    void holderCountRanksWithinNameMatches() {
+        holders.putSkill(JAVA, SkillCategory.PROG_LANG);
+        holders.putSkill(JAVASCRIPT, SkillCategory.PROG_LANG);
+        holders.putCandidate(10, List.of(JAVASCRIPT));
+        holders.putCandidate(11, List.of(JAVASCRIPT, JAVA));
+
+        assertThat(names(suggest.suggest("java", 10)).subList(0, 2), contains("JavaScript", "Java"));
+        assertThat(names(suggest.suggest("java", 1)), contains("JavaScript"));
+    }
+
+    @Test
+    void skillsWithoutANameDoNotBreakTheRanking() {
+        suggest.put(new SkillDTO(6, null, SkillCategory.DB, "Java persistence"));
+
+        List<String> names = names(suggest.suggest("java", 10));
+        assertThat(names, hasSize(5));
+        assertThat(names.get(4), is(nullValue()));
+    }
+
+    @Test
+    void removedSkillsAreNoLongerSuggested() {
+        suggest.remove(REACT);
+        assertThat(names(suggest.suggest("rea", 10)), empty());
+    }
+
+    private static List<String> names(List<SkillDTO> skills) {
+        return skills.stream().map(SkillDTO::getName).toList();
+    }
+}
@@ -1,15 +1,19 @@
 package dat.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dat.Main;
 import dat.entities.SkillCategory;
 import io.javalin.Javalin;
 import io.restassured.RestAssured;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -201,4 +205,146 @@ class CandidateApiIT {
                 .body("findAll { it.skills*.category.flatten().contains('DEVOPS') }.size()",
                         greaterThanOrEqualTo(1));
     }
-}
\ No newline at end of file
+
+    // --- Bulk import ---
+    @Test @Order(8)
+    void importCsv_importsGoodRows_andReportsBadOnesByLine() {
+        String csv = String.join("\n",
+                "name,phone,education,skills",
+                "\"Carlsen, Carl\",55558888,BSc,Docker",
+                "Dora,123,BSc,",                       // line 3: bad phone
+                "Erik,55559999,MSc,Unknown skill",     // line 4: unknown skill
+                "Frida,55550000,AP,");
+
+        given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/api/candidates/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(2))
+                .body("failed", equalTo(2))
+                .body("errors.line", contains(3, 4));
+
+        given()
+                .queryParam("category", "DEVOPS")
+                .when()
+                .get("/api/candidates")
+                .then()
+                .statusCode(200)
+                .body("name", hasItem("Carlsen, Carl"));
+    }
+
+    @Test @Order(9)
+    void importNdjson_rejectsDuplicatePhones() {
+        String ndjson = String.join("\n",
+                "{\"name\":\"Gustav\",\"phone\":\"55551111\",\"education\":\"BSc\",\"skills\":[" + devopsSkillId + "]}",
+                "{\"name\":\"Gustav again\",\"phone\":\"55551111\",\"education\":\"BSc\"}",
+                "not json");
+
+        given()
+                .contentType("application/x-ndjson")
+                .body(ndjson)
+                .when()
+                .post("/api/candidates/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(1))
+                .body("errors.line", contains(2, 3));
+    }
+
+    // --- Export ---
+    // 1100 imported candidates are more rows than one fetch block (1000) of the export cursor
+    @Test @Order(10)
+    void export_isOneValidJsonArrayOfEveryCandidateInIdOrder() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1100; i++)
+            ndjson.append("{\"name\":\"Export ").append(i).append("\",\"phone\":\"")
+                    .append(70_000_000 + i).append("\",\"education\":\"BSc\",\"skills\":[")
+                    .append(devopsSkillId).append("]}\n");
+        given()
+                .contentType("application/x-ndjson")
+                .body(ndjson.toString())
+                .when()
+                .post("/api/candidates/import")
+                .then()
+                .statusCode(200)
+                .body("imported", equalTo(1100));
+
+        String body =
+                given()
+                        .when()
+                        .get("/api/candidates/export")
+                        .then()
+                        .statusCode(200)
+                        .contentType(containsString("application/json"))
+                        .extract().asString();
+        JsonNode exported = new ObjectMapper().readTree(body); // throws on malformed or truncated JSON
+
+        List<Integer> ids = new ArrayList<>();
+        int imported = 0;
+        for (JsonNode candidate : exported) {
+            ids.add(candidate.get("id").asInt());
+            if (candidate.get("name").asText().startsWith("Export ")) {
+                imported++;
+                assertThat(candidate.get("skills").get(0).get("id").asInt(), is(devopsSkillId));
+            }
+        }
+        assertThat(exported.isArray(), is(true));
+        assertThat(imported, is(1100));
+        assertThat(ids, is(ids.stream().distinct().sorted().toList()));
+
+        int all = given().when().get("/api/candidates").then().statusCode(200).extract().path("size()");
+        assertThat(ids, hasSize(all));
+    }
+
+    // --- DELETE one skill link ---
+    @Test @Order(11)
+    void unlinkSkill_returns204_thenThe404OfAMissingLink() {
+        int id =
+                given()
+                        .contentType("application/json")
+                        .body(Map.of("name", "Ulla Unlink", "phone", "55552222", "education", "BSc"))
+                        .when()
+                        .post("/api/candidates")
+                        .then()
+                        .statusCode(anyOf(is(200), is(201)))
+                        .extract().path("id");
+        given().when().put("/api/candidates/{cid}/skills/{sid}", id, devopsSkillId).then().statusCode(200);
+
+        given()
+                .when()
+                .delete("/api/candidates/{cid}/skills/{sid}", id, devopsSkillId)
+                .then()
+                .statusCode(204);
+
+        given()
+                .when()
+                .get("/api/candidates/{id}", id)
+                .then()
+                .statusCode(200)
+                .body("skills", empty());
+
+        given()
+                .when()
+                .delete("/api/candidates/{cid}/skills/{sid}", id, devopsSkillId)
+                .then()
+                .statusCode(404)
+                .body("message", containsString("has no skill " + devopsSkillId));
+    }
+
+    @Test @Order(12)
+    void unlinkSkill_withReturnCandidate_returns200_andTheRemainingSkills() {
+        given().when().put("/api/candidates/{cid}/skills/{sid}", candidateId, devopsSkillId).then().statusCode(200);
+
+        given()
+                .queryParam("return", "candidate")
+                .when()
+                .delete("/api/candidates/{cid}/skills/{sid}", candidateId, devopsSkillId)
+                .then()
+                .statusCode(200)
+                .body("id", equalTo(candidateId))
+                .body("skills.id", not(hasItem(devopsSkillId)));
+    }
+}
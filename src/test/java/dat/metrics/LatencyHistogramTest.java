@@ -0,0 +1,83 @@
+package dat.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveABucketEach() {
+        for (long v = 0; v < 32; v++) {
+            assertThat(LatencyHistogram.index(v), is((int) v));
+            assertThat(LatencyHistogram.upperBound((int) v), is(v));
+        }
+    }
+
+    @Test
+    void everyValueFallsInsideItsBucketAndBucketsAreContiguous() {
+        for (int i = 1; i < 1024; i++) {
+            long low = LatencyHistogram.upperBound(i - 1) + 1;
+            assertThat(LatencyHistogram.index(low), is(i));
+            assertThat(LatencyHistogram.index(LatencyHistogram.upperBound(i)), is(i));
+        }
+        // 32 linear buckets per power of two: bucket width is at most 1/32 of its lower bound
+        for (int i = 32; i < 1024; i++) {
+            long low = LatencyHistogram.upperBound(i - 1) + 1;
+            long width = LatencyHistogram.upperBound(i) - low + 1;
+            assertThat(width * 32, lessThanOrEqualTo(low));
+        }
+    }
+
+    @Test
+    void valuesOutsideTheRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        assertThat(histogram.percentileMicros(100), is(0L));
+
+        histogram.record(Long.MAX_VALUE);
+        long max = (1L << 36) - 1;
+        assertThat(histogram.maxMicros(), is(max));
+        assertThat(histogram.percentileMicros(100), is(max));
+        assertThat(LatencyHistogram.index(max), is(1023));
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.percentileMicros(50), is(0L));
+        assertThat(histogram.maxMicros(), is(0L));
+    }
+
+    @Test
+    void percentilesAreWithinTheBucketErrorOfTheExactValue() {
+        Random random = new Random(7);
+        long[] values = new long[100_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextGaussian() * 1.5 + 8); // log-normal around 3 ms
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double p : new double[]{1, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long reported = histogram.percentileMicros(p);
+            assertThat("p" + p, reported, greaterThanOrEqualTo(exact));
+            assertThat("p" + p, (double) reported, lessThanOrEqualTo(exact * (1 + 1 / 32.0)));
+        }
+        assertThat(histogram.maxMicros(), is(values[values.length - 1]));
+    }
+
+    @Test
+    void percentileNeverExceedsTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000); // bucket [992, 1007]
+        assertThat(histogram.percentileMicros(99), is(1000L));
+        assertThat(histogram.maxMicros(), is(1000L));
+    }
+}
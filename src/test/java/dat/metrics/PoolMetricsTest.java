@@ -0,0 +1,68 @@
+package dat.metrics;
+
+import dat.config.AppConfig;
+import dat.config.TestDatabase;
+import dat.daos.impl.SkillDAO;
+import dat.dtos.PoolStatsDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class PoolMetricsTest {
+
+    private static EntityManagerFactory emf;
+
+    @BeforeAll
+    static void setUp() {
+        emf = TestDatabase.seeded();
+    }
+
+    // Hikari hands its PoolStats to PoolMetrics, sized from AppConfig (DB_POOL_*)
+    @Test
+    void snapshotReportsTheConfiguredPool() {
+        PoolStatsDTO stats = PoolMetrics.snapshot();
+
+        assertThat(stats.getMax(), is(AppConfig.useForTest().poolMaxSize()));
+        assertThat(stats.getTotal(), allOf(greaterThan(0), lessThanOrEqualTo(stats.getMax())));
+        assertThat(stats.getActive() + stats.getIdle(), lessThanOrEqualTo(stats.getTotal())); // plus reserved ones
+    }
+
+    @Test
+    void everyCheckoutIsCounted() {
+        long before = PoolMetrics.snapshot().getAcquireCount();
+
+        SkillDAO.getInstance(emf).validatePrimaryKey(1);
+
+        PoolStatsDTO after = PoolMetrics.snapshot();
+        assertThat(after.getAcquireCount(), greaterThan(before));
+        assertThat(after.getAcquireAvgMs(), greaterThanOrEqualTo(0.0));
+        assertThat(after.getAcquireMaxMs(), greaterThanOrEqualTo(after.getAcquireAvgMs()));
+        assertThat(after.getAcquireTimeouts(), is(0L));
+    }
+
+    @Test
+    void aConnectionHeldByATransactionIsActive() throws InterruptedException {
+        int activeBefore = fresh().getActive();
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            em.createNativeQuery("SELECT 1").getSingleResult();
+
+            assertThat(fresh().getActive(), is(activeBefore + 1));
+            em.getTransaction().rollback();
+        } finally {
+            em.close();
+        }
+        assertThat(fresh().getActive(), is(activeBefore));
+    }
+
+    // Hikari reloads the counts of its PoolStats at most once a second
+    private static PoolStatsDTO fresh() throws InterruptedException {
+        Thread.sleep(1_100);
+        return PoolMetrics.snapshot();
+    }
+}
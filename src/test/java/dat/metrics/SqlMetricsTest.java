@@ -0,0 +1,59 @@
+package dat.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlMetricsTest {
+
+    @Test
+    void labelIsVerbAndTable() {
+        assertThat(SqlMetrics.label("/* comment */ select c.id from candidate c"), is("select candidate"));
+        assertThat(SqlMetrics.label("UPDATE candidate c SET category_mask = 0"), is("update candidate"));
+        assertThat(SqlMetrics.label("select nextval('candidate_skill_seq')"), is("select"));
+    }
+
+    @Test
+    void shapeFoldsInListsAndWhitespace() {
+        assertThat(SqlMetrics.shape("select *\n  from skill where id in (?, ?,?)"),
+                is("select * from skill where id in (?...)"));
+    }
+
+    // Raw JDBC statements (Session.doWork) are recorded like the ones Hibernate runs, also when they fail
+    @Test
+    void timeRecordsRawStatements() throws SQLException {
+        String sql = "SELECT id FROM time_test WHERE id = ANY(?::int[])";
+
+        assertThat(SqlMetrics.time(sql, () -> 42), is(42));
+        assertThrows(SQLException.class, () -> SqlMetrics.time(sql, () -> {
+            throw new SQLException("boom");
+        }));
+
+        assertThat(prometheus(), containsString("db_statement_duration_seconds_count{statement=\"select time_test\"} 2"));
+    }
+
+    // The inspected SQL belongs to one execution; a later one without a fresh inspect is not charged to it
+    @Test
+    void listenerForgetsTheStatementOnceItRan() {
+        SqlMetrics.Listener listener = new SqlMetrics.Listener();
+        new SqlMetrics.Inspector().inspect("insert into listener_test (id) values (?)");
+
+        listener.jdbcExecuteBatchStart();
+        listener.jdbcExecuteBatchEnd();
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+
+        assertThat(prometheus(), containsString("db_statement_duration_seconds_count{statement=\"insert listener_test\"} 1"));
+        assertThat(prometheus(), containsString("db_statement_duration_seconds_count{statement=\"unknown\"}"));
+    }
+
+    private static String prometheus() {
+        StringBuilder out = new StringBuilder();
+        SqlMetrics.writePrometheus(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package dat.security.hashing;
+
+import dat.security.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHasherTest {
+
+    // One hashing thread, one queue slot, 200 ms to deliver a result
+    private final PasswordHasher hasher = new PasswordHasher(4, 1, 1, 200);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void releaseThePool() throws InterruptedException {
+        release.countDown();
+        callers.shutdown();
+        callers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void hashThenVerify() {
+        String hash = hasher.hash("secret");
+
+        assertThat(hasher.verify("secret", hash), is(true));
+        assertThat(hasher.verify("wrong", hash), is(false));
+    }
+
+    @Test
+    void aResultThatTakesTooLongIsA503() throws InterruptedException {
+        CountDownLatch started = occupyTheHashingThread();
+        started.await();
+
+        long start = System.nanoTime();
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, () -> hasher.run(() -> true));
+
+        assertThat(e.getCode(), is(503));
+        assertThat(e.getRetryAfterSeconds(), greaterThan(0));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(2_000L));
+    }
+
+    // The timed out task left the queue, so the slot is free for the next caller
+    @Test
+    void aTimedOutTaskGivesUpItsQueueSlot() throws Exception {
+        occupyTheHashingThread().await();
+        assertThrows(ServiceUnavailableException.class, () -> hasher.run(() -> true));
+
+        Future<Boolean> next = callers.submit(() -> hasher.run(() -> true)); // rejected if the slot were still taken
+        release.countDown();
+        assertThat(next.get(5, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    void aFullQueueIsRejectedRightAway() throws InterruptedException {
+        occupyTheHashingThread().await();
+        callers.submit(() -> hasher.run(() -> true)); // fills the single queue slot
+        Thread.sleep(50);
+
+        long start = System.nanoTime();
+        assertThrows(ServiceUnavailableException.class, () -> hasher.run(() -> true));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(100L));
+    }
+
+    // A caller whose task holds the only hashing thread until release. Its own wait times out, and like
+    // BCrypt the task ignores the interrupt that follows, so the thread stays busy.
+    private CountDownLatch occupyTheHashingThread() {
+        CountDownLatch started = new CountDownLatch(1);
+        callers.submit(() -> {
+            try {
+                return hasher.run(() -> {
+                    started.countDown();
+                    while (true) {
+                        try {
+                            return release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException ignored) {
+                            // keep holding the thread
+                        }
+                    }
+                });
+            } catch (ServiceUnavailableException e) {
+                return false;
+            }
+        });
+        return started;
+    }
+}
@@ -0,0 +1,76 @@
+package dat.security.tokens;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import dk.bugelhartmann.TokenSecurity;
+import dk.bugelhartmann.UserDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class TokenVerifierTest {
+
+    private static final String SECRET = "test-secret-test-secret-test-secret-test";
+    private static final String ISSUER = "dat";
+
+    // The claims TokenSecurity.createToken writes are the ones verify reads
+    @Test
+    void readsTheUserFromATokenCreatedByTokenSecurity() throws Exception {
+        String token = new TokenSecurity().createToken(new UserDTO("alice", Set.of("USER", "ADMIN")),
+                ISSUER, "3600000", SECRET);
+
+        UserDTO user = new TokenVerifier(SECRET, ISSUER, 10).verify(token);
+
+        assertThat(user.getUsername(), is("alice"));
+        assertThat(user.getRoles(), containsInAnyOrder("USER", "ADMIN"));
+    }
+
+    @Test
+    void cachedTokenReturnsTheSameUser() throws Exception {
+        TokenVerifier verifier = new TokenVerifier(SECRET, ISSUER, 10);
+        String token = sign(SECRET, ISSUER, "bob", "USER", 60_000);
+
+        UserDTO first = verifier.verify(token);
+
+        assertThat(verifier.verify(token), sameInstance(first));
+    }
+
+    @Test
+    void rejectsWrongSignatureIssuerAndExpiredTokens() throws Exception {
+        TokenVerifier verifier = new TokenVerifier(SECRET, ISSUER, 10);
+
+        assertThat(verifier.verify(sign("other-secret-other-secret-other-secret!", ISSUER, "eve", "ADMIN", 60_000)),
+                is(nullValue()));
+        assertThat(verifier.verify(sign(SECRET, "someone-else", "eve", "ADMIN", 60_000)), is(nullValue()));
+        assertThat(verifier.verify(sign(SECRET, ISSUER, "eve", "ADMIN", -1_000)), is(nullValue()));
+        assertThat(verifier.verify(sign(SECRET, ISSUER, null, "ADMIN", 60_000)), is(nullValue()));
+    }
+
+    @Test
+    void rolesClaimAsStringOrArray() {
+        assertThat(TokenVerifier.roles("USER, ADMIN"), is(Set.of("USER", "ADMIN")));
+        assertThat(TokenVerifier.roles(List.of("USER", "ADMIN")), is(Set.of("USER", "ADMIN")));
+        assertThat(TokenVerifier.roles(""), is(Set.of()));
+        assertThat(TokenVerifier.roles(null), is(Set.of()));
+    }
+
+    private static String sign(String secret, String issuer, String username, String roles, long validMs)
+            throws Exception {
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .claim("roles", roles)
+                .expirationTime(new Date(System.currentTimeMillis() + validMs));
+        if (username != null) claims.subject(username).claim("username", username);
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims.build());
+        jwt.sign(new MACSigner(secret));
+        return jwt.serialize();
+    }
+}
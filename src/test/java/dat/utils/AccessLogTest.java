@@ -0,0 +1,101 @@
+package dat.utils;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class AccessLogTest {
+
+    private final Logger access = (Logger) LoggerFactory.getLogger("access");
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+
+    @BeforeEach
+    void captureTheAccessLogger() {
+        events.start();
+        access.addAppender(events);
+    }
+
+    @AfterEach
+    void restore() {
+        access.detachAppender(events);
+        AccessLog.setSampleRate(1.0);
+    }
+
+    @Test
+    void everyRequestIsOneStructuredEventAtTheDefaultRate() {
+        AccessLog.log("GET", "/api/candidates/7", "/api/candidates/{id}", 200, 1.5f);
+
+        assertThat(events.list, hasSize(1));
+        Map<String, Object> fields = fields(events.list.get(0));
+        assertThat(fields.get("method"), is("GET"));
+        assertThat(fields.get("path"), is("/api/candidates/7"));
+        assertThat(fields.get("route"), is("/api/candidates/{id}"));
+        assertThat(fields.get("status"), is(200));
+        assertThat(fields.get("ms"), is(1.5f));
+        assertThat(fields.get("sampleRate"), is(1.0));
+    }
+
+    @Test
+    void errorsAreAlwaysLoggedAndSuccessesSampled() {
+        AccessLog.setSampleRate(0.0);
+
+        AccessLog.log("GET", "/api/candidates", "/api/candidates", 200, 1f);
+        AccessLog.log("GET", "/api/candidates/x", "/api/candidates/{id}", 404, 1f);
+        AccessLog.log("POST", "/api/candidates", "/api/candidates", 500, 1f);
+
+        assertThat(events.list.stream().map(e -> fields(e).get("status")).toList(), contains(404, 500));
+        events.list.forEach(e -> assertThat(fields(e).get("sampleRate"), is(1.0)));
+    }
+
+    @Test
+    void sampledLinesCarryTheRateAndMatchIt() {
+        AccessLog.setSampleRate(0.25);
+
+        for (int i = 0; i < 10_000; i++) AccessLog.log("GET", "/api/skills", "/api/skills", 200, 1f);
+
+        assertThat(events.list.size(), allOf(greaterThan(2_000), lessThan(3_000)));
+        assertThat(fields(events.list.get(0)).get("sampleRate"), is(0.25));
+    }
+
+    // logback.xml: request threads only enqueue; full queues drop events instead of blocking
+    @Test
+    void accessAndApplicationLogsAreWrittenAsynchronously() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        assertThat(access.isAdditive(), is(false));
+        assertNonBlockingAsync(access.getAppender("ASYNC_ACCESS"));
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        for (Iterator<Appender<ILoggingEvent>> it = root.iteratorForAppenders(); it.hasNext(); ) {
+            assertNonBlockingAsync(it.next());
+        }
+    }
+
+    private static void assertNonBlockingAsync(Appender<ILoggingEvent> appender) {
+        assertThat(appender, instanceOf(AsyncAppender.class));
+        AsyncAppender async = (AsyncAppender) appender;
+        assertThat(async.getName(), async.isNeverBlock(), is(true));
+        assertThat(async.getName(), async.getDiscardingThreshold(), is(0));
+        assertThat(async.isStarted(), is(true));
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        Map<String, Object> fields = new HashMap<>();
+        for (KeyValuePair pair : event.getKeyValuePairs()) fields.put(pair.key, pair.value);
+        return fields;
+    }
+}
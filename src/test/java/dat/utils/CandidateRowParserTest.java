@@ -0,0 +1,80 @@
+package dat.utils;
+
+import dat.dtos.CandidateDTO;
+import dat.dtos.SkillDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CandidateRowParserTest {
+
+    @Test
+    void csv_readsColumnsByHeaderName() {
+        CandidateRowParser parser = CandidateRowParser.csv("Education,name,phone,skills");
+
+        CandidateDTO dto = parser.parse("BSc CS, Alice Andersen ,55556666,1;Docker");
+
+        assertThat(dto.getName(), is("Alice Andersen"));
+        assertThat(dto.getPhone(), is("55556666"));
+        assertThat(dto.getEducation(), is("BSc CS"));
+        assertThat(dto.getSkills().stream().map(SkillDTO::getId).toList(), contains(1, null));
+        assertThat(dto.getSkills().get(1).getName(), is("Docker"));
+    }
+
+    @Test
+    void csv_quotedFieldsKeepCommasAndEscapedQuotes() {
+        assertThat(CandidateRowParser.splitCsv("\"Andersen, Alice\",\"say \"\"hi\"\"\",,x"),
+                contains("Andersen, Alice", "say \"hi\"", "", "x"));
+    }
+
+    @Test
+    void csv_unterminatedQuoteIsRejected() {
+        CandidateRowParser parser = CandidateRowParser.csv("name,phone,education");
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("\"Alice,55556666,BSc"));
+    }
+
+    @Test
+    void csv_headerWithoutRequiredColumnIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CandidateRowParser.csv("name,phone"));
+        assertThrows(IllegalArgumentException.class, () -> CandidateRowParser.csv(null));
+    }
+
+    @Test
+    void csv_missingTrailingColumnsAreNull() {
+        CandidateDTO dto = CandidateRowParser.csv("name,phone,education,skills").parse("Alice,55556666");
+
+        assertThat(dto.getEducation(), nullValue());
+        assertThat(dto.getSkills(), empty());
+    }
+
+    @Test
+    void csv_emptySkillTokensAreSkipped() {
+        CandidateDTO dto = CandidateRowParser.csv("name,phone,education,skills").parse("Alice,55556666,BSc,Java;;4;");
+
+        assertThat(dto.getSkills(), hasSize(2));
+    }
+
+    @Test
+    void ndjson_acceptsSkillIdsNamesAndObjects() {
+        CandidateDTO dto = CandidateRowParser.ndjson().parse(
+                "{\"name\":\"Bob\",\"phone\":\"55557777\",\"education\":\"MSc\",\"skills\":[3,\"Java\",{\"id\":7},{\"name\":\"SQL\"}]}");
+
+        List<SkillDTO> skills = dto.getSkills();
+        assertThat(skills.stream().map(SkillDTO::getId).toList(), contains(3, null, 7, null));
+        assertThat(skills.stream().map(SkillDTO::getName).toList(), contains(null, "Java", null, "SQL"));
+    }
+
+    @Test
+    void ndjson_badRowsAreRejected() {
+        CandidateRowParser parser = CandidateRowParser.ndjson();
+
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("{\"name\":"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("[1,2]"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse("{\"name\":\"Bob\",\"skills\":[\" \"]}"));
+    }
+}
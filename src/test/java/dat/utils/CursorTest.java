@@ -0,0 +1,37 @@
+package dat.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorTest {
+
+    @Test
+    void roundTripsNamesIncludingSeparatorsAndNull() {
+        for (Cursor cursor : new Cursor[]{
+                new Cursor("Java", 7), new Cursor("a:b:c", 8), new Cursor("", 9),
+                new Cursor("null", 10), new Cursor(null, 11)}) {
+            assertThat(Cursor.decode(cursor.encode()), is(cursor));
+        }
+        assertThat(Cursor.decode(new Cursor(null, 11).encode()).name(), is(nullValue()));
+    }
+
+    @Test
+    void missingCursorIsTheFirstPage() {
+        assertThat(Cursor.decode(null), is(nullValue()));
+        assertThat(Cursor.decode("  "), is(nullValue()));
+    }
+
+    @Test
+    void tamperedCursorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode("not base64 !"));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode(encode(":Java")));
+        assertThrows(IllegalArgumentException.class, () -> Cursor.decode(encode("x:Java")));
+    }
+
+    private static String encode(String raw) {
+        return java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+    }
+}